@@ -0,0 +1,108 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.event.EventBus;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures publish throughput: an event without listeners, with one listener and with four
+ * listeners on a class, an interface and a superclass of the event, synchronously and on virtual
+ * threads. With {@code -prof gc} the synchronous cases should only allocate the event itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBusBenchmark {
+
+  private EventBus eventBus;
+
+  @Setup
+  public void register() throws Exception {
+    BasicApplicationContext applicationContext = new BasicApplicationContext();
+    applicationContext.register(
+        EventBus.class, SingleListener.class, FirstListener.class, SecondListener.class);
+    eventBus = applicationContext.get(EventBus.class);
+  }
+
+  @Benchmark
+  public void publishUnheard() {
+    eventBus.publish(new Unheard());
+  }
+
+  @Benchmark
+  public void publishToOneListener() {
+    eventBus.publish(new Single());
+  }
+
+  @Benchmark
+  public void publishToFourListeners() {
+    eventBus.publish(new Fanned());
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void publishToFourListenersContended() {
+    eventBus.publish(new Fanned());
+  }
+
+  @Benchmark
+  public void publishAsyncToFourListeners() {
+    eventBus.publishAsync(new Fanned()).join();
+  }
+
+  public record Unheard() {}
+
+  public record Single() {}
+
+  public interface Audited {}
+
+  public static class Event {}
+
+  public static final class Fanned extends Event implements Audited {}
+
+  @Component
+  public static class SingleListener {
+    long received;
+
+    @Listen
+    void on(Single event) {
+      received++;
+    }
+  }
+
+  @Component
+  public static class FirstListener {
+    long received;
+
+    @Listen
+    void on(Fanned event) {
+      received++;
+    }
+
+    @Listen
+    void audit(Audited event) {
+      received++;
+    }
+  }
+
+  @Component
+  public static class SecondListener {
+    long received;
+
+    @Listen
+    void on(Event event) {
+      received++;
+    }
+
+    @Listen
+    void audit(Audited event) {
+      received++;
+    }
+  }
+}
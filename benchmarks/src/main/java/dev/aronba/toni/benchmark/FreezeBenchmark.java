@@ -0,0 +1,67 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the heap a context retains after {@code register()} on synthetic graphs, with and
+ * without {@code freeze()}. The retained bytes per component are reported as a secondary result
+ * next to the allocations of the GC profiler. Each operation runs full collections to measure
+ * them, so its time is not meaningful.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FreezeBenchmark {
+
+  @Param({"1000", "10000"})
+  public int components;
+
+  @Param({"false", "true"})
+  public boolean frozen;
+
+  private Class<?>[] graph;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class RetainedHeap {
+    public long bytesPerComponent;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      bytesPerComponent = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void generate() {
+    graph = SyntheticComponents.graph(components, false);
+  }
+
+  @Benchmark
+  public BasicApplicationContext register(RetainedHeap retainedHeap) throws Exception {
+    long before = usedHeapAfterGc();
+    BasicApplicationContext applicationContext = new BasicApplicationContext();
+    applicationContext.register(graph);
+    if (frozen) applicationContext.freeze();
+    retainedHeap.bytesPerComponent = (usedHeapAfterGc() - before) / components;
+    return applicationContext;
+  }
+
+  private static long usedHeapAfterGc() throws InterruptedException {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    long used = Long.MAX_VALUE;
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(20);
+      used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+    }
+    return used;
+  }
+}
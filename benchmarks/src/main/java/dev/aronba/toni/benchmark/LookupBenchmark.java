@@ -0,0 +1,82 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.Lifetime;
+import dev.aronba.toni.context.core.Provider;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the steady state hot paths: singleton lookups (single threaded and contended by all
+ * cores) and creation of a prototype with nested prototype and singleton dependencies, through the
+ * context and through an injected {@link Provider}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+  private ApplicationContext applicationContext;
+  private Provider<Request> requestProvider;
+
+  @Setup
+  public void register() throws Exception {
+    applicationContext = new BasicApplicationContext();
+    applicationContext.register(
+        Repository.class, Service.class, Session.class, Request.class, RequestFactory.class);
+    requestProvider = applicationContext.get(RequestFactory.class).requests;
+  }
+
+  @Benchmark
+  public Service singletonGet() {
+    return applicationContext.get(Service.class);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Service singletonGetContended() {
+    return applicationContext.get(Service.class);
+  }
+
+  @Benchmark
+  public Request prototypeGet() {
+    return applicationContext.get(Request.class);
+  }
+
+  @Benchmark
+  public Request providerGet() {
+    return requestProvider.get();
+  }
+
+  @Component
+  public static class Repository {}
+
+  @Component
+  public static class Service {
+    public Service(Repository repository) {}
+  }
+
+  @Component(Lifetime.PROTOTYPE)
+  public static class Session {
+    public Session(Repository repository) {}
+  }
+
+  @Component(Lifetime.PROTOTYPE)
+  public static class Request {
+    public Request(Service service, Session session) {}
+  }
+
+  @Component
+  public static class RequestFactory {
+    final Provider<Request> requests;
+
+    public RequestFactory(Provider<Request> requests) {
+      this.requests = requests;
+    }
+  }
+}
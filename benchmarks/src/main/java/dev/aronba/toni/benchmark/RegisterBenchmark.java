@@ -0,0 +1,73 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.processor.PostConstructPostProcessor;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures {@code register()} on synthetic graphs, with and without post-processing, and with the
+ * graph split into batches that are registered one after another.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegisterBenchmark {
+
+  @Param({"100", "1000", "10000", "50000"})
+  public int components;
+
+  @Param({"basic", "parallel"})
+  public String context;
+
+  private static final int BATCHES = 50;
+
+  private Class<?>[] graph;
+  private Class<?>[] graphWithPostConstruct;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    graph = SyntheticComponents.graph(components, false);
+    Class<?>[] postConstructGraph = SyntheticComponents.graph(components, true);
+    graphWithPostConstruct = Arrays.copyOf(postConstructGraph, postConstructGraph.length + 1);
+    graphWithPostConstruct[postConstructGraph.length] = PostConstructPostProcessor.class;
+  }
+
+  @Benchmark
+  public ApplicationContext register() throws Exception {
+    ApplicationContext applicationContext = newContext();
+    applicationContext.register(graph);
+    return applicationContext;
+  }
+
+  @Benchmark
+  public ApplicationContext registerWithPostProcessing() throws Exception {
+    ApplicationContext applicationContext = newContext();
+    applicationContext.register(graphWithPostConstruct);
+    return applicationContext;
+  }
+
+  @Benchmark
+  public ApplicationContext registerInBatches() throws Exception {
+    ApplicationContext applicationContext = newContext();
+    int batchSize = Math.max(1, graph.length / BATCHES);
+    // every component only depends on components with a lower index, so batches can go in order
+    for (int from = 0; from < graph.length; from += batchSize) {
+      applicationContext.register(
+          Arrays.copyOfRange(graph, from, Math.min(graph.length, from + batchSize)));
+    }
+    return applicationContext;
+  }
+
+  private ApplicationContext newContext() {
+    return context.equals("parallel")
+        ? new ParallelApplicationContext()
+        : new BasicApplicationContext();
+  }
+}
@@ -0,0 +1,21 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.ContextScanner;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Measures a full {@code ContextScanner.scan()} of the benchmark jar. */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScanBenchmark {
+
+  @Benchmark
+  public ApplicationContext scan() throws Exception {
+    return new ContextScanner().scan();
+  }
+}
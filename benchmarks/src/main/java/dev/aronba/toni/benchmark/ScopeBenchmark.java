@@ -0,0 +1,65 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.Lifetime;
+import dev.aronba.toni.context.core.ScopedApplicationContext;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the life of a scope as a request would use it: open a scope, resolve a scoped component
+ * with a scoped and a singleton dependency, and close the scope again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScopeBenchmark {
+
+  private ApplicationContext applicationContext;
+
+  @Setup
+  public void register() throws Exception {
+    applicationContext = new BasicApplicationContext();
+    applicationContext.register(Repository.class, Session.class, Handler.class);
+  }
+
+  @Benchmark
+  public ScopedApplicationContext openAndClose() {
+    ScopedApplicationContext scope = applicationContext.createScope();
+    scope.close();
+    return scope;
+  }
+
+  @Benchmark
+  public Handler openGetAndClose() {
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      return scope.get(Handler.class);
+    }
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Handler openGetAndCloseContended() {
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      return scope.get(Handler.class);
+    }
+  }
+
+  @Component
+  public static class Repository {}
+
+  @Component(Lifetime.SCOPED)
+  public static class Session {
+    public Session(Repository repository) {}
+  }
+
+  @Component(Lifetime.SCOPED)
+  public static class Handler {
+    public Handler(Repository repository, Session session) {}
+  }
+}
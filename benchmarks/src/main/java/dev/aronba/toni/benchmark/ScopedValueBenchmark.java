@@ -0,0 +1,101 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.Lifetime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * One virtual thread per request, 100k requests at once. Every request needs the same
+ * request-bound component twice, which it gets from a {@code runInScope} scope, as a new {@code
+ * PROTOTYPE} each time, or from a hand-written {@link ThreadLocal} cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ScopedValueBenchmark {
+  private static final int REQUESTS = 100_000;
+  private static final ThreadLocal<PrototypeHandler> HANDLER = new ThreadLocal<>();
+
+  private ApplicationContext applicationContext;
+
+  @Setup
+  public void register() throws Exception {
+    applicationContext = new BasicApplicationContext();
+    applicationContext.register(
+        Repository.class, ScopedHandler.class, PrototypeHandler.class);
+  }
+
+  @Benchmark
+  public void scopedValue(Blackhole blackhole) {
+    runRequests(
+        _ ->
+            applicationContext.runInScope(
+                () -> {
+                  blackhole.consume(applicationContext.get(ScopedHandler.class));
+                  blackhole.consume(applicationContext.get(ScopedHandler.class));
+                }));
+  }
+
+  @Benchmark
+  public void prototype(Blackhole blackhole) {
+    runRequests(
+        _ -> {
+          blackhole.consume(applicationContext.get(PrototypeHandler.class));
+          blackhole.consume(applicationContext.get(PrototypeHandler.class));
+        });
+  }
+
+  @Benchmark
+  public void threadLocal(Blackhole blackhole) {
+    runRequests(
+        _ -> {
+          try {
+            blackhole.consume(cachedHandler());
+            blackhole.consume(cachedHandler());
+          } finally {
+            HANDLER.remove();
+          }
+        });
+  }
+
+  private PrototypeHandler cachedHandler() {
+    PrototypeHandler handler = HANDLER.get();
+    if (handler == null) {
+      handler = applicationContext.get(PrototypeHandler.class);
+      HANDLER.set(handler);
+    }
+    return handler;
+  }
+
+  private static void runRequests(Consumer<Integer> request) {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < REQUESTS; i++) {
+        int id = i;
+        executor.execute(() -> request.accept(id));
+      }
+    }
+  }
+
+  @Component
+  public static class Repository {}
+
+  @Component(Lifetime.SCOPED)
+  public static class ScopedHandler {
+    public ScopedHandler(Repository repository) {}
+  }
+
+  @Component(Lifetime.PROTOTYPE)
+  public static class PrototypeHandler {
+    public PrototypeHandler(Repository repository) {}
+  }
+}
@@ -0,0 +1,41 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.internal.DependencyGraphBuilder;
+import dev.aronba.toni.context.internal.DependencyGraphSorter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Measures the topological sort alone, on wide trees and on chains as deep as the graph. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortBenchmark {
+
+  @Param({"10000", "100000"})
+  public int components;
+
+  @Param({"tree", "chain"})
+  public String shape;
+
+  private DependencyGraphSorter sorter;
+
+  @Setup(Level.Trial)
+  public void buildGraph() throws Exception {
+    Class<?>[] classes =
+        shape.equals("chain")
+            ? SyntheticComponents.chain(components)
+            : SyntheticComponents.graph(components, false);
+    DependencyGraphBuilder builder = new DependencyGraphBuilder();
+    builder.buildGraph(classes);
+    sorter = new DependencyGraphSorter(builder.getDependencyGraph(), builder.getInterfaceToImpls());
+  }
+
+  @Benchmark
+  public List<List<Class<?>>> sortIntoLevels() throws Exception {
+    return sorter.sortIntoLevels();
+  }
+}
@@ -0,0 +1,72 @@
+package dev.aronba.toni.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Boots {@link StartupSample} with a few hundred synthetic components in a new JVM, once cold and
+ * once from a dynamic AppCDS archive recorded by a {@code --toni.train} run. The time covers the
+ * whole process: JVM start, loading ClassGraph, logback and the components, scan and registration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+  @Param({"300"})
+  public int components;
+
+  private List<String> command;
+  private Path archive;
+
+  @Setup(Level.Trial)
+  public void train() throws Exception {
+    Path graph = SyntheticComponents.indexedGraphJar(components);
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    String classPath = System.getProperty("java.class.path") + File.pathSeparator + graph;
+    command =
+        List.of(
+            java,
+            "-cp",
+            classPath,
+            StartupSample.class.getName(),
+            "--toni.scan.packages=dev.aronba.toni.benchmark.synthetic");
+    archive = Files.createTempDirectory("toni-cds").resolve("startup.jsa");
+
+    boot("-XX:ArchiveClassesAtExit=" + archive, "--toni.train");
+    if (!Files.exists(archive)) throw new IllegalStateException("No archive written: " + archive);
+  }
+
+  @Benchmark
+  public int cold() throws Exception {
+    return boot(null, null);
+  }
+
+  @Benchmark
+  public int archived() throws Exception {
+    return boot("-XX:SharedArchiveFile=" + archive, null);
+  }
+
+  private int boot(String jvmOption, String argument) throws IOException, InterruptedException {
+    List<String> arguments = new ArrayList<>(command);
+    if (jvmOption != null) arguments.add(1, jvmOption);
+    if (argument != null) arguments.add(argument);
+    Process process =
+        new ProcessBuilder(arguments)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    int exitCode = process.waitFor();
+    if (exitCode != 0) throw new IllegalStateException("Boot failed with exit code " + exitCode);
+    return exitCode;
+  }
+}
@@ -0,0 +1,10 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.ToniApplication;
+
+/** The application booted by {@link StartupBenchmark} in a separate JVM. */
+public class StartupSample {
+  public static void main(String[] args) throws Exception {
+    ToniApplication.run(args);
+  }
+}
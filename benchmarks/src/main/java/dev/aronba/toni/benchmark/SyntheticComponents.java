@@ -0,0 +1,147 @@
+package dev.aronba.toni.benchmark;
+
+import dev.aronba.toni.context.internal.ComponentIndex;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import javax.tools.*;
+
+/**
+ * Generates, compiles and loads graphs of synthetic component classes. Component {@code C<i>}
+ * depends on {@code C<i/2>} and {@code C<i/3>}, which gives every graph a depth of {@code log(n)}
+ * and about two edges per node. A chain, where {@code C<i>} depends on {@code C<i-1>}, has a depth
+ * of {@code n} instead.
+ */
+final class SyntheticComponents {
+  private static final String PACKAGE = "dev.aronba.toni.benchmark.synthetic";
+  private static final Map<String, Class<?>[]> CACHE = new ConcurrentHashMap<>();
+
+  private SyntheticComponents() {}
+
+  static Class<?>[] graph(int size, boolean withPostConstruct) {
+    return CACHE.computeIfAbsent(
+        size + "-" + withPostConstruct, _ -> generate(size, withPostConstruct, false));
+  }
+
+  static Class<?>[] chain(int size) {
+    return CACHE.computeIfAbsent(size + "-chain", _ -> generate(size, false, true));
+  }
+
+  /**
+   * Compiles a graph into a jar together with its component index, so that a separate JVM can find
+   * the components with a regular {@code ContextScanner}. Class data sharing only archives classes
+   * from jars, not from directories.
+   */
+  static Path indexedGraphJar(int size) throws IOException {
+    Path classes = compileGraph(size, false, false);
+    ComponentIndex index = new ComponentIndex();
+    for (int i = 0; i < size; i++) {
+      index.add(PACKAGE + ".C" + i, List.of());
+    }
+
+    Path jar = classes.resolveSibling(classes.getFileName() + ".jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry(ComponentIndex.LOCATION));
+      index.write(out);
+      try (Stream<Path> files = Files.walk(classes)) {
+        for (Path file : files.filter(Files::isRegularFile).toList()) {
+          out.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+          Files.copy(file, out);
+        }
+      }
+    }
+    return jar;
+  }
+
+  private static Path compileGraph(int size, boolean withPostConstruct, boolean chain)
+      throws IOException {
+    Path output = Files.createTempDirectory("toni-synthetic-" + size);
+    List<JavaFileObject> sources = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      sources.add(new Source("C" + i, source(i, withPostConstruct, chain)));
+    }
+    compile(sources, output);
+    return output;
+  }
+
+  private static Class<?>[] generate(int size, boolean withPostConstruct, boolean chain) {
+    try {
+      Path output = compileGraph(size, withPostConstruct, chain);
+
+      ClassLoader classLoader =
+          new URLClassLoader(
+              new URL[] {output.toUri().toURL()}, SyntheticComponents.class.getClassLoader());
+      Class<?>[] classes = new Class<?>[size];
+      for (int i = 0; i < size; i++) {
+        classes[i] = Class.forName(PACKAGE + ".C" + i, false, classLoader);
+      }
+      return classes;
+    } catch (IOException | ClassNotFoundException e) {
+      throw new IllegalStateException("Could not generate synthetic components", e);
+    }
+  }
+
+  private static String source(int index, boolean withPostConstruct, boolean chain) {
+    StringBuilder source = new StringBuilder();
+    source.append("package ").append(PACKAGE).append(";\n");
+    source.append("@dev.aronba.toni.context.annotation.Component\n");
+    source.append("public class C").append(index).append(" {\n");
+    source.append("  public C").append(index).append("(");
+    if (chain) {
+      if (index >= 1) source.append("C").append(index - 1).append(" a");
+    } else {
+      if (index >= 2) source.append("C").append(index / 2).append(" a");
+      if (index >= 3 && index / 3 != index / 2) source.append(", C").append(index / 3).append(" b");
+    }
+    source.append(") {}\n");
+    if (withPostConstruct) {
+      source.append("  @dev.aronba.toni.context.annotation.PostConstruct void init() {}\n");
+    }
+    source.append("}\n");
+    return source.toString();
+  }
+
+  private static void compile(List<JavaFileObject> sources, Path output) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    List<String> options =
+        List.of(
+            "-proc:none",
+            "-classpath",
+            System.getProperty("java.class.path"),
+            "-d",
+            output.toString());
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(diagnostics, null, null)) {
+      if (!compiler.getTask(null, fileManager, diagnostics, options, null, sources).call()) {
+        throw new IOException("Compilation failed: " + diagnostics.getDiagnostics());
+      }
+    }
+  }
+
+  private static final class Source extends SimpleJavaFileObject {
+    private final String code;
+
+    Source(String simpleName, String code) {
+      super(
+          URI.create("string:///" + PACKAGE.replace('.', '/') + "/" + simpleName + ".java"),
+          Kind.SOURCE);
+      this.code = code;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return code;
+    }
+  }
+}
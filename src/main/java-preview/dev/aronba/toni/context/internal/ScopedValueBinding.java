@@ -0,0 +1,20 @@
+package dev.aronba.toni.context.internal;
+
+/**
+ * Binds the scope through a {@link ScopedValue}, which threads forked with structured concurrency
+ * inherit. ScopedValue is a preview API of JDK 23, so this is the only class compiled with {@code
+ * --enable-preview}; {@link CurrentScope} only loads it reflectively.
+ */
+final class ScopedValueBinding implements ScopeBinding {
+  private static final ScopedValue<Scope> SCOPE = ScopedValue.newInstance();
+
+  @Override
+  public Scope current() {
+    return SCOPE.isBound() ? SCOPE.get() : null;
+  }
+
+  @Override
+  public void run(Scope scope, Runnable operation) {
+    ScopedValue.where(SCOPE, scope).run(operation);
+  }
+}
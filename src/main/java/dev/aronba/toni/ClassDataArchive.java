@@ -0,0 +1,49 @@
+package dev.aronba.toni;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * The class data sharing archive options the JVM was started with, read from its input arguments.
+ * A dynamic AppCDS archive ({@code -XX:ArchiveClassesAtExit} / {@code -XX:SharedArchiveFile}) and
+ * the AOT cache of JDK 24+ ({@code -XX:AOTCacheOutput} or {@code -XX:AOTMode=record} / {@code
+ * -XX:AOTCache}) are recognized.
+ *
+ * @param used the archive classes are loaded from, or {@code null}, also if the JVM could not map
+ *     it and runs with class data sharing off
+ * @param recording the archive or configuration written when the JVM exits, or {@code null}
+ */
+record ClassDataArchive(String used, String recording) {
+
+  static ClassDataArchive ofCurrentJvm() {
+    // "mixed mode, sharing" while classes are mapped from an archive
+    String vmInfo = System.getProperty("java.vm.info", "");
+    return of(ManagementFactory.getRuntimeMXBean().getInputArguments(), vmInfo.contains("sharing"));
+  }
+
+  /**
+   * @param jvmArguments the options passed to the JVM, not those of the application
+   * @param sharing whether class data sharing is on
+   */
+  static ClassDataArchive of(List<String> jvmArguments, boolean sharing) {
+    String used = null;
+    String recording = null;
+    String aotConfiguration = null;
+    boolean aotRecord = false;
+    for (String argument : jvmArguments) {
+      used = valueOf(argument, "-XX:SharedArchiveFile=", used);
+      used = valueOf(argument, "-XX:AOTCache=", used);
+      recording = valueOf(argument, "-XX:ArchiveClassesAtExit=", recording);
+      recording = valueOf(argument, "-XX:AOTCacheOutput=", recording);
+      aotConfiguration = valueOf(argument, "-XX:AOTConfiguration=", aotConfiguration);
+      aotRecord |= argument.equals("-XX:AOTMode=record");
+    }
+    // the training run of JDK 24 records a configuration that the cache is created from later
+    if (recording == null && aotRecord) recording = aotConfiguration;
+    return new ClassDataArchive(sharing ? used : null, recording);
+  }
+
+  private static String valueOf(String argument, String option, String current) {
+    return argument.startsWith(option) ? argument.substring(option.length()) : current;
+  }
+}
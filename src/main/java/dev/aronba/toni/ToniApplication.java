@@ -1,7 +1,10 @@
 package dev.aronba.toni;
 
 import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
 import dev.aronba.toni.context.core.ContextScanner;
+import java.nio.file.Path;
+import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,22 +23,112 @@ public class ToniApplication {
                      /\\______\\                        /\\______\\    \s
                      \\/______/                        \\/______/    \s
             """;
+  private static final String SCAN_ARGUMENT_PREFIX = "--toni.scan.";
+  private static final String TRAIN_ARGUMENT = "--toni.train";
   private final ContextScanner contextScanner;
 
   public ToniApplication(final ContextScanner contextScanner) {
     this.contextScanner = contextScanner;
   }
 
+  /**
+   * Starts the application. The classpath scan can be narrowed with the arguments {@code
+   * --toni.scan.packages=a.b,c.d}, {@code --toni.scan.accept-jars=app-*.jar}, {@code
+   * --toni.scan.reject-jars=big-*.jar} and {@code --toni.scan.threads=8}. With {@code
+   * --toni.scan.snapshot=toni.snapshot} later starts on the same classpath skip the scan. With
+   * {@code --toni.train} the application is only started to record a class data archive, see
+   * {@link #train}.
+   */
   public static void run(final String[] args) throws Exception {
+    if (isTrainingRun(args)) {
+      train(scannerFromArguments(args));
+    } else {
+      run(scannerFromArguments(args));
+    }
+  }
+
+  /**
+   * Whether the arguments ask for a training run. {@link #run} returns after it, so {@code main}
+   * can exit and let the JVM write the archive.
+   */
+  public static boolean isTrainingRun(final String[] args) {
+    return Arrays.asList(args).contains(TRAIN_ARGUMENT);
+  }
+
+  public static void run(final ContextScanner contextScanner) throws Exception {
     logger.info(BANNER);
     logger.info("Starting ToniApplication");
-    final ContextScanner contextScanner = new ContextScanner();
+    final ClassDataArchive archive = ClassDataArchive.ofCurrentJvm();
+    if (archive.used() != null) {
+      logger.info("Loading classes from archive {}", archive.used());
+    } else {
+      logger.debug("No class data archive in use, start once with --toni.train to record one");
+    }
     final ToniApplication toniApplication = new ToniApplication(contextScanner);
     toniApplication.start();
   }
 
+  /**
+   * Scans and registers all components, then returns so that the caller can exit the JVM. Started
+   * with {@code -XX:ArchiveClassesAtExit=app.jsa}, the JVM writes every class loaded so far
+   * (ClassGraph, logback, toni and all components) into a dynamic AppCDS archive on exit; later
+   * starts with {@code -XX:SharedArchiveFile=app.jsa} map them instead of loading and verifying
+   * them again. The AOT cache of JDK 24+ is recorded the same way with {@code
+   * -XX:AOTCacheOutput=app.aot}.
+   */
+  public static void train(final ContextScanner contextScanner) throws Exception {
+    logger.info("Starting ToniApplication training run");
+    final ClassDataArchive archive = ClassDataArchive.ofCurrentJvm();
+    if (archive.recording() == null) {
+      logger.warn(
+          "No archive is recorded, start the training run with -XX:ArchiveClassesAtExit=<file>");
+    }
+    final long start = System.nanoTime();
+    new ToniApplication(contextScanner).start();
+    logger.info(
+        "Training run started the application in {} ms, writing {} on exit",
+        (System.nanoTime() - start) / 1_000_000,
+        archive.recording());
+  }
+
+  static ContextScanner scannerFromArguments(final String[] args) {
+    final ContextScanner.Builder builder = ContextScanner.builder();
+    for (final String arg : args) {
+      final int separator = arg.indexOf('=');
+      if (!arg.startsWith(SCAN_ARGUMENT_PREFIX) || separator < 0) continue;
+      final String value = arg.substring(separator + 1);
+      switch (arg.substring(SCAN_ARGUMENT_PREFIX.length(), separator)) {
+        case "packages" -> builder.basePackages(value.split(","));
+        case "accept-jars" -> builder.acceptJars(value.split(","));
+        case "reject-jars" -> builder.rejectJars(value.split(","));
+        case "threads" -> builder.threads(parseThreads(value));
+        case "snapshot" -> builder.snapshot(Path.of(value));
+        default -> logger.warn("Unknown argument: {}", arg);
+      }
+    }
+    return builder.build();
+  }
+
+  private static int parseThreads(final String value) {
+    try {
+      final int threads = Integer.parseInt(value.strip());
+      if (threads > 0) return threads;
+    } catch (NumberFormatException ignore) {
+      // reported below
+    }
+    throw new IllegalArgumentException(
+        SCAN_ARGUMENT_PREFIX + "threads must be a positive number, was: " + value);
+  }
+
   private void start() throws Exception {
     logger.info("Scanning Classpath");
     final ApplicationContext applicationContext = this.contextScanner.scan();
+    // nothing registers after the scan, so the graph metadata is garbage from here on
+    if (applicationContext instanceof BasicApplicationContext basicApplicationContext) {
+      basicApplicationContext.freeze();
+    }
+    // a SIGTERM of the deployment drains the components instead of just ending the JVM
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(applicationContext::close, "toni-shutdown"));
   }
 }
@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@code Wiring} named after the annotated class for the components of its package and
+ * sub packages that are compiled together with it. The wiring creates them with plain constructor
+ * calls instead of reflection. It is not generated, with a compiler warning, if the components can
+ * not be wired completely at compile time, e.g. because one is {@code SCOPED} or depends on a
+ * component of another package.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GenerateWiring {}
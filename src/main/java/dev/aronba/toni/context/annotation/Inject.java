@@ -0,0 +1,14 @@
+package dev.aronba.toni.context.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the constructor a component is created with. Without it, the public constructor with the
+ * most dependencies that can all be satisfied is used.
+ */
+@Target(ElementType.CONSTRUCTOR)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Inject {}
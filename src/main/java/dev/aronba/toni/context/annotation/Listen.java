@@ -0,0 +1,16 @@
+package dev.aronba.toni.context.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a singleton or lazy component that receives the events published on the
+ * {@code EventBus}. The method takes exactly one parameter, the event, and gets every event that is
+ * an instance of its type. Methods inherited from superclasses are found as well, an overriding
+ * method replaces the one it overrides. A lazy component only receives events once it was created.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Listen {}
@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Position of an implementation when all implementations of an interface are injected as a {@code
+ * List}, {@code Set} or array. Lower values come first; implementations without it come last, in
+ * registration order.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Order {
+  int value();
+}
@@ -0,0 +1,16 @@
+package dev.aronba.toni.context.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a factory method of a component that provides a singleton of its return type, for classes
+ * that can not be annotated themselves. The parameters are injected like constructor parameters.
+ * A method returning {@code CompletableFuture<T>} provides a {@code T}: it is started without
+ * waiting for earlier async factories, and only the components that need the result wait for it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Provides {}
@@ -4,9 +4,38 @@ import dev.aronba.toni.context.exception.InstatitationException;
 import dev.aronba.toni.context.exception.NoImplementationFoundException;
 import dev.aronba.toni.context.exception.UnsatisfiedDependencyException;
 
-public interface ApplicationContext {
+public interface ApplicationContext extends AutoCloseable {
+  /**
+   * Adds the classes to the component graph and creates their singletons.
+   *
+   * @throws IllegalStateException if this context does not accept registrations, because it is
+   *     frozen or a scope of another context
+   */
   void register(Class<?>... classes)
       throws UnsatisfiedDependencyException, NoImplementationFoundException, InstatitationException;
 
   <T> T get(Class<T> clazz);
+
+  StartupMetrics getStartupMetrics();
+
+  /**
+   * Opens a child context for one request, job or similar unit of work. It holds its own instance
+   * of every {@code SCOPED} component and falls back to this context for everything else.
+   */
+  ScopedApplicationContext createScope();
+
+  /**
+   * Runs the operation in a new scope that is closed afterwards. Within the operation, including
+   * threads forked from it with structured concurrency, {@link #get} and injection resolve {@code
+   * SCOPED} components to the instances of that scope. The scope is bound through a {@code
+   * ScopedValue} with {@code --enable-preview} on JDK 23, or an inheritable thread-local otherwise.
+   */
+  void runInScope(Runnable operation);
+
+  /**
+   * Destroys the components this context holds, in reverse dependency order. Closing twice does
+   * nothing.
+   */
+  @Override
+  void close();
 }
@@ -1,23 +1,52 @@
 package dev.aronba.toni.context.core;
 
 import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PreDestroy;
 import dev.aronba.toni.context.exception.InstatitationException;
 import dev.aronba.toni.context.exception.NoImplementationFoundException;
+import dev.aronba.toni.context.exception.PostProcessingException;
 import dev.aronba.toni.context.exception.UnsatisfiedDependencyException;
 import dev.aronba.toni.context.internal.*;
+import dev.aronba.toni.context.jfr.ComponentCreationEvent;
+import dev.aronba.toni.context.jfr.GraphBuildEvent;
+import dev.aronba.toni.context.jfr.PostProcessEvent;
+import dev.aronba.toni.context.jfr.ShutdownEvent;
+import dev.aronba.toni.context.jfr.SortEvent;
 import dev.aronba.toni.context.processor.ComponentPostProcessor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class BasicApplicationContext implements ApplicationContext {
   private static final Logger logger = LoggerFactory.getLogger(BasicApplicationContext.class);
 
-  private final Map<Class<?>, Object> instances = new HashMap<>();
-  private final List<ComponentPostProcessor> componentPostProcessors = new ArrayList<>();
-  private final DependencyGraphBuilder dependencyGraphBuilder;
-  private final InstanceFactory instanceFactory;
-  private final DependencyGraphSorter dependencyGraphSorter;
+  protected final Map<Class<?>, Object> instances = new ConcurrentHashMap<>();
+  protected final PostProcessorRegistry postProcessorRegistry = new PostProcessorRegistry();
+  // the graph is only needed to register components and dropped by freeze()
+  protected volatile DependencyGraphBuilder dependencyGraphBuilder;
+  protected final InstanceFactory instanceFactory;
+  protected volatile DependencyGraphSorter dependencyGraphSorter;
+  // replaced by a compact copy in freeze(), a reader still seeing the old map finds the same
+  private volatile Map<Class<?>, Binding> bindings = new ConcurrentHashMap<>();
+  private volatile boolean frozen = false;
+  // set on the registering thread and inherited by the threads it starts, see Registration
+  private final InheritableThreadLocal<Registration> currentRegistration =
+      new InheritableThreadLocal<>();
+  // lazy components of earlier registrations that were created while registering
+  private final Set<Class<?>> lazilyCreatedWhileRegistering = ConcurrentHashMap.newKeySet();
+  private final StartupMetrics startupMetrics = new StartupMetrics();
+  private volatile WaveExecutor initializer = new WaveExecutor(1);
+  // the components of every registration level by level, to destroy them in reverse
+  private final List<List<Class<?>>> createdLevels = new CopyOnWriteArrayList<>();
+  private volatile Duration shutdownTimeout = Duration.ofMillis(500);
+  private final AtomicBoolean closed = new AtomicBoolean();
 
   public BasicApplicationContext() {
     this.dependencyGraphBuilder = new DependencyGraphBuilder();
@@ -26,27 +55,61 @@ public class BasicApplicationContext implements ApplicationContext {
             instances,
             dependencyGraphBuilder.getDependencyGraph(),
             dependencyGraphBuilder.getInterfaceToImpls(),
-            componentPostProcessors,
-            this);
+            postProcessorRegistry);
     this.dependencyGraphSorter =
         new DependencyGraphSorter(
             dependencyGraphBuilder.getDependencyGraph(),
             dependencyGraphBuilder.getInterfaceToImpls());
+    this.instanceFactory.setLazyInitializer(this::initializeLazyInstance);
+    this.instanceFactory.setRuntimeInitializer(this::initializeRuntimeInstance);
   }
 
   @Override
   public <T> T get(Class<T> clazz) {
-    if (!clazz.isAnnotationPresent(Component.class)) return null;
-    Lifetime classLifetime = clazz.getAnnotation(Component.class).value();
+    return get(clazz, null);
+  }
+
+  <T> T get(Class<T> clazz, Scope scope) {
+    Binding binding = bindings.get(clazz);
+    if (binding == null) return null;
+    return clazz.cast(binding.get(scope));
+  }
+
+  @Override
+  public ScopedApplicationContext createScope() {
+    return new ScopedApplicationContext(this, instanceFactory.newScope());
+  }
 
-    Object instance = null;
-    if (Objects.requireNonNull(classLifetime) == Lifetime.SINGELTON) {
-      instance = clazz.cast(instances.get(clazz));
-    } else if (classLifetime == Lifetime.PROTOTYPE && instances.containsKey(clazz)) {
-      instance = clazz.cast(this.instanceFactory.createNewInstance(clazz));
+  @Override
+  public void runInScope(Runnable operation) {
+    Scope scope = instanceFactory.newScope();
+    try {
+      scope.run(operation);
+    } finally {
+      scope.close();
     }
-    if (instance == null) return null;
-    return clazz.cast(instance);
+  }
+
+  /**
+   * Sets how many components are post-processed at the same time while registering. Defaults to
+   * {@code 1}, which runs every post-processor on the registering thread. Higher values need
+   * thread-safe post-processors, see {@link ComponentPostProcessor}.
+   */
+  public void setInitializationParallelism(int parallelism) {
+    this.initializer = new WaveExecutor(parallelism);
+  }
+
+  /**
+   * Sets how long {@link #close} waits for the {@code @PreDestroy} methods and {@code close()} of
+   * one component. Defaults to 500 ms.
+   */
+  public void setShutdownTimeout(Duration shutdownTimeout) {
+    this.shutdownTimeout = shutdownTimeout;
+  }
+
+  @Override
+  public StartupMetrics getStartupMetrics() {
+    return startupMetrics;
   }
 
   @Override
@@ -54,28 +117,481 @@ public class BasicApplicationContext implements ApplicationContext {
       throws UnsatisfiedDependencyException,
           NoImplementationFoundException,
           InstatitationException {
-    this.dependencyGraphBuilder.buildGraph(classes);
-    instantiateComponents();
-    runPostProcessors();
+    checkNotFrozen();
+    try (Registration registration = startRegistration()) {
+      int knownPostProcessors = postProcessorRegistry.size();
+      Class<?>[] components = buildGraph(classes);
+      List<List<Class<?>>> levels = instantiateComponents(components);
+      instanceFactory.awaitAsync();
+      createdLevels.addAll(levels);
+      publishBindings(levels);
+      runPostProcessors(levels, knownPostProcessors);
+    }
+  }
+
+  private Class<?>[] buildGraph(Class<?>... classes)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException {
+    GraphBuildEvent event = new GraphBuildEvent();
+    event.begin();
+    long start = System.nanoTime();
+    Class<?>[] components = this.dependencyGraphBuilder.buildGraph(classes);
+    startupMetrics.recordGraphBuilding(System.nanoTime() - start);
+    event.classes = classes.length;
+    event.commit();
+    return components;
+  }
+
+  /**
+   * Registers the components of a snapshot taken by {@link #createSnapshot}. Scanning, graph
+   * building, sorting and constructor selection are skipped: every component is created with the
+   * recorded constructor or factory method in the recorded order. Components this context already
+   * holds, for example the built-in ones of a {@link ContextScanner}, are not created again.
+   */
+  public void register(StartupSnapshot snapshot)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException {
+    checkNotFrozen();
+    try (Registration registration = startRegistration()) {
+      int knownPostProcessors = postProcessorRegistry.size();
+      ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+      for (var entry : snapshot.interfaceToImpls().entrySet()) {
+        List<Class<?>> impls = new ArrayList<>();
+        for (String impl : entry.getValue()) impls.add(loadClass(impl, classLoader));
+        dependencyGraphBuilder.getInterfaceToImpls().put(loadClass(entry.getKey(), classLoader), impls);
+      }
+
+      Map<Class<?>, Executable> creators = new HashMap<>();
+      List<List<Class<?>>> levels = new ArrayList<>();
+      for (List<String> level : snapshot.levels()) {
+        List<Class<?>> classes = new ArrayList<>(level.size());
+        for (String name : level) {
+          Class<?> clazz = loadClass(name, classLoader);
+          if (bindings.containsKey(clazz)) continue;
+          creators.put(clazz, findCreator(clazz, snapshot, classLoader));
+          classes.add(clazz);
+        }
+        if (!classes.isEmpty()) levels.add(classes);
+      }
+      // later registrations and snapshots read the graph, not the bindings
+      for (var entry : creators.entrySet()) {
+        dependencyGraphBuilder.addRestored(entry.getKey(), entry.getValue());
+      }
+
+      instantiateLevels(levels, creators);
+      instanceFactory.awaitAsync();
+      createdLevels.addAll(levels);
+      publishBindings(levels);
+      runPostProcessors(levels, knownPostProcessors);
+    }
+  }
+
+  /**
+   * Registers the components of generated wiring code. Graph building, sorting and constructor
+   * selection already happened at compile time, so only the post-processors run reflectively.
+   */
+  public void register(Wiring wiring) {
+    checkNotFrozen();
+    try (Registration registration = startRegistration()) {
+      int knownPostProcessors = postProcessorRegistry.size();
+      List<Class<?>> components = wiring.components();
+      dependencyGraphBuilder.addGenerated(components);
+      long start = System.nanoTime();
+      GeneratedComponents generated = new GeneratedComponents();
+      wiring.wire(generated);
+      startupMetrics.recordInstantiation(wiring.getClass(), System.nanoTime() - start);
+
+      // the wiring registers every component after its dependencies, one at a time
+      List<List<Class<?>>> levels = generated.order.stream().map(List::<Class<?>>of).toList();
+      createdLevels.addAll(levels);
+      publishBindings(levels);
+      runPostProcessors(levels, knownPostProcessors);
+    }
+  }
+
+  /**
+   * Drops everything that is only needed to register components: the dependency graph with its
+   * dependencies and generic types, the selected constructors, the reflected parameters of every
+   * plan and the tables to look plans up. Only the bindings remain, so getting components,
+   * creating prototypes, scopes and closing keep working, while registering or snapshotting fails
+   * afterwards. Meant for applications that register everything at startup and then run for long.
+   */
+  public void freeze() {
+    if (frozen) return;
+    frozen = true;
+    dependencyGraphBuilder = null;
+    dependencyGraphSorter = null;
+    instanceFactory.freeze();
+    bindings = Map.copyOf(bindings);
+    logger.debug("Froze the context with {} bindings", bindings.size());
+  }
+
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new IllegalStateException("The context is frozen, components can not change");
+    }
+  }
+
+  /**
+   * Destroys the singletons and the lazy components that were created, in reverse dependency
+   * order: the components of one level are destroyed in parallel, each with {@link PreDestroy}
+   * methods and then {@link AutoCloseable#close}, and only once everything depending on them is
+   * destroyed. Every component gets the shutdown timeout; one that fails or takes longer is logged
+   * and does not stop the others.
+   */
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) return;
+    ShutdownEvent event = new ShutdownEvent();
+    event.begin();
+    long start = System.nanoTime();
+    List<List<Class<?>>> waves = new ArrayList<>();
+    for (List<Class<?>> level : createdLevels.reversed()) {
+      List<Class<?>> wave = new ArrayList<>();
+      for (Class<?> clazz : level) {
+        Object instance = instances.get(clazz);
+        if (instance != null && ComponentDestroyer.needsDestroy(clazz, instance)) wave.add(clazz);
+      }
+      if (!wave.isEmpty()) waves.add(wave);
+    }
+    int failed = new ComponentDestroyer(shutdownTimeout).destroy(waves, instances);
+    int components = waves.stream().mapToInt(List::size).sum();
+    event.components = components;
+    event.failed = failed;
+    event.commit();
+    logger.info(
+        "Closed the context in {} ms, destroyed {} components in {} waves, {} failed",
+        (System.nanoTime() - start) / 1_000_000,
+        components,
+        waves.size(),
+        failed);
+  }
+
+  /** Records the outcome of all registrations so far, see {@link #register(StartupSnapshot)}. */
+  public StartupSnapshot createSnapshot(String fingerprint)
+      throws NoImplementationFoundException {
+    checkNotFrozen();
+    List<List<String>> levels = new ArrayList<>();
+    Map<String, List<String>> constructors = new LinkedHashMap<>();
+    Map<String, List<String>> factoryMethods = new LinkedHashMap<>();
+    Map<Class<?>, Executable> creators = dependencyGraphBuilder.getCreators();
+    for (List<Class<?>> level : dependencyGraphSorter.sortIntoLevels()) {
+      List<String> names = new ArrayList<>();
+      for (Class<?> clazz : level) {
+        ResolutionPlan plan = instanceFactory.getPlan(clazz);
+        // generated components are recreated by their wiring, not from the snapshot
+        if (plan == null || plan.isGenerated()) continue;
+        names.add(clazz.getName());
+        constructors.put(
+            clazz.getName(),
+            Arrays.stream(plan.getConstructorParameterTypes()).map(Class::getName).toList());
+        if (creators.get(clazz) instanceof Method method) {
+          factoryMethods.put(
+              clazz.getName(), List.of(method.getDeclaringClass().getName(), method.getName()));
+        }
+      }
+      if (!names.isEmpty()) levels.add(names);
+    }
+
+    Map<String, List<String>> interfaceToImpls = new LinkedHashMap<>();
+    for (var entry : dependencyGraphBuilder.getInterfaceToImpls().entrySet()) {
+      interfaceToImpls.put(
+          entry.getKey().getName(), entry.getValue().stream().map(Class::getName).toList());
+    }
+    return new StartupSnapshot(fingerprint, levels, constructors, factoryMethods, interfaceToImpls);
+  }
+
+  private static Class<?> loadClass(String name, ClassLoader classLoader)
+      throws InstatitationException {
+    try {
+      return Class.forName(name, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw new InstatitationException(e);
+    }
+  }
+
+  /** The recorded factory method of the class, or else its recorded constructor. */
+  private static Executable findCreator(
+      Class<?> clazz, StartupSnapshot snapshot, ClassLoader classLoader)
+      throws InstatitationException {
+    List<String> parameterNames = snapshot.constructors().getOrDefault(clazz.getName(), List.of());
+    Class<?>[] parameterTypes = new Class<?>[parameterNames.size()];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      parameterTypes[i] = loadClass(parameterNames.get(i), classLoader);
+    }
+    List<String> factoryMethod = snapshot.factoryMethods().get(clazz.getName());
+    try {
+      if (factoryMethod == null) return clazz.getConstructor(parameterTypes);
+      return loadClass(factoryMethod.get(0), classLoader)
+          .getDeclaredMethod(factoryMethod.get(1), parameterTypes);
+    } catch (NoSuchMethodException e) {
+      throw new InstatitationException(e);
+    }
+  }
+
+  /**
+   * Creates the given classes and any earlier registered dependencies that do not exist yet.
+   * Components of earlier registrations are not sorted again.
+   *
+   * @return the created classes, level by level
+   */
+  protected List<List<Class<?>>> instantiateComponents(Class<?>... classes)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException {
+    List<List<Class<?>>> levels = new ArrayList<>();
+    for (List<Class<?>> level : sortIntoLevels(classes)) {
+      List<Class<?>> pending = level.stream().filter(this::needsInstance).toList();
+      if (!pending.isEmpty()) levels.add(pending);
+    }
+    instantiateLevels(levels, dependencyGraphBuilder.getCreators());
+    return levels;
+  }
+
+  private List<List<Class<?>>> sortIntoLevels(Class<?>... classes)
+      throws NoImplementationFoundException {
+    SortEvent event = new SortEvent();
+    event.begin();
+    long start = System.nanoTime();
+    List<Class<?>> added = Arrays.stream(classes).filter(this::needsInstance).toList();
+    List<List<Class<?>>> levels =
+        this.dependencyGraphSorter.sortIntoLevels(
+            added, clazz -> instanceFactory.getPlan(clazz) != null);
+    startupMetrics.recordSorting(System.nanoTime() - start);
+    event.levels = levels.size();
+    event.commit();
+    return levels;
   }
 
-  private void instantiateComponents()
+  /**
+   * Creates the components level by level, each with exactly the given constructor or factory
+   * method.
+   */
+  protected void instantiateLevels(
+      List<List<Class<?>>> levels, Map<Class<?>, Executable> constructors)
       throws UnsatisfiedDependencyException,
           NoImplementationFoundException,
           InstatitationException {
-    for (Class<?> clazz : this.dependencyGraphSorter.sortDependencyGraph()) {
-      if (!clazz.isInterface() && !instances.containsKey(clazz)) {
-        instanceFactory.instantiateClass(clazz);
+    for (List<Class<?>> level : levels) {
+      for (Class<?> clazz : level) {
+        instantiate(clazz, constructors.get(clazz));
       }
     }
     logger.info("Successfully created {} instances", instances.size());
   }
 
-  private void runPostProcessors() {
-    for (var entry : instances.entrySet()) {
-      for (var processor : componentPostProcessors) {
-        processor.postProcess(entry.getKey(), entry.getValue(), this);
+  protected void instantiate(Class<?> clazz, Executable constructor)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException {
+    Component component = clazz.getAnnotation(Component.class);
+    Lifetime lifetime = component == null ? Lifetime.SINGELTON : component.value();
+    ComponentCreationEvent event = new ComponentCreationEvent();
+    event.begin();
+    long start = System.nanoTime();
+    if (constructor == null) {
+      throw new InstatitationException("No constructor selected for " + clazz.getName());
+    }
+    switch (lifetime) {
+      case LAZY -> instanceFactory.prepareLazy(clazz, constructor);
+      case SCOPED -> instanceFactory.prepareScoped(clazz, constructor);
+      default -> instanceFactory.instantiateClass(clazz, constructor);
+    }
+    startupMetrics.recordInstantiation(clazz, System.nanoTime() - start);
+    event.component = clazz;
+    event.commit();
+  }
+
+  /**
+   * Classes that are only reachable as a dependency but were never registered with a valid
+   * constructor are skipped, so that a consumer with an alternative constructor can still be built.
+   */
+  protected boolean needsInstance(Class<?> clazz) {
+    return !clazz.isInterface()
+        && instanceFactory.getPlan(clazz) == null
+        && dependencyGraphBuilder.getDependencyGraph().containsKey(clazz);
+  }
+
+  /**
+   * Adds the bindings of the new components to the lookup table. {@link #get} is a single
+   * lock-free map lookup that is safe to call from any thread, and a registration only pays for
+   * its own components instead of copying the whole table.
+   */
+  private void publishBindings(List<List<Class<?>>> levels) {
+    Map<Class<?>, Binding> next = new HashMap<>();
+    for (List<Class<?>> level : levels) {
+      for (Class<?> clazz : level) {
+        Component component = clazz.getAnnotation(Component.class);
+        ResolutionPlan plan = instanceFactory.getPlan(clazz);
+        Lifetime lifetime;
+        if (component != null) {
+          lifetime = component.value();
+        } else if (plan != null && plan.isProvided()) {
+          lifetime = Lifetime.SINGELTON;
+        } else {
+          continue;
+        }
+        Binding binding =
+            switch (lifetime) {
+              case SINGELTON -> new Binding.Singleton(instances.get(clazz));
+              case PROTOTYPE -> new Binding.Prototype(plan);
+              case LAZY -> new Binding.Lazy(instanceFactory.getLazySingleton(clazz));
+              case SCOPED ->
+                  new Binding.Scoped(instanceFactory.getScopeSlot(clazz), plan);
+            };
+        next.put(clazz, binding);
+      }
+    }
+    bindings.putAll(next);
+  }
+
+  /**
+   * Lazy components created by a registration are post-processed together with its new instances,
+   * so they also see the post-processors it adds. Lazy components created on any other thread,
+   * including while a registration runs, are post-processed right away, before they are published.
+   */
+  private void initializeLazyInstance(Class<?> type, Object instance) {
+    Registration registration = currentRegistration.get();
+    if (registration != null && registration.active) {
+      lazilyCreatedWhileRegistering.add(type);
+      return;
+    }
+    postProcess(type, instance);
+  }
+
+  /**
+   * Post-processes the components created by one registration in topological waves: the
+   * components of one level are post-processed in parallel, and a component only once all of its
+   * dependencies are done. Processors that were added by the registration only see earlier
+   * components if they ask for them.
+   */
+  private void runPostProcessors(List<List<Class<?>>> levels, int knownPostProcessors) {
+    Set<Class<?>> created = new HashSet<>();
+    List<List<Class<?>>> waves = new ArrayList<>(levels.size());
+    for (List<Class<?>> level : levels) {
+      List<Class<?>> wave = new ArrayList<>();
+      for (Class<?> clazz : level) {
+        if (!instances.containsKey(clazz)) continue;
+        created.add(clazz);
+        if (postProcessorRegistry.forType(clazz).length > 0) wave.add(clazz);
       }
+      if (!wave.isEmpty()) waves.add(wave);
+    }
+    initializer.run(waves, clazz -> postProcess(clazz, instances.get(clazz)));
+    for (Class<?> clazz : lazilyCreatedWhileRegistering) {
+      if (created.add(clazz)) postProcess(clazz, instances.get(clazz));
+    }
+    lazilyCreatedWhileRegistering.clear();
+
+    List<ComponentPostProcessor> processors = postProcessorRegistry.getAll();
+    for (var processor : processors.subList(knownPostProcessors, processors.size())) {
+      if (!processor.processExistingComponents()) continue;
+      List<Class<?>> existing =
+          instances.keySet().stream()
+              .filter(clazz -> !created.contains(clazz) && processor.supports(clazz))
+              .toList();
+      initializer.run(
+          sortExisting(existing), clazz -> postProcess(processor, clazz, instances.get(clazz)));
+    }
+  }
+
+  /** Sorts components that were already created, ignoring dependencies on any other component. */
+  private List<List<Class<?>>> sortExisting(List<Class<?>> existing) {
+    Set<Class<?>> included = new HashSet<>(existing);
+    try {
+      return dependencyGraphSorter.sortIntoLevels(existing, clazz -> !included.contains(clazz));
+    } catch (NoImplementationFoundException e) {
+      // every one of them was created, so all of their dependencies were found before
+      throw new PostProcessingException(e.getMessage());
+    }
+  }
+
+  private void postProcess(Class<?> type, Object instance) {
+    ComponentPostProcessor[] processors = postProcessorRegistry.forType(type);
+    if (processors.length == 0) return;
+    long start = System.nanoTime();
+    for (var processor : processors) {
+      postProcess(processor, type, instance);
+    }
+    startupMetrics.recordPostProcessing(type, System.nanoTime() - start);
+  }
+
+  /**
+   * Runs the same processors for every new prototype and scoped instance. They are looked up once
+   * per type, so this only costs the processors themselves.
+   */
+  private void initializeRuntimeInstance(Class<?> type, Object instance) {
+    for (var processor : postProcessorRegistry.forType(type)) {
+      postProcess(processor, type, instance);
+    }
+  }
+
+  private void postProcess(ComponentPostProcessor processor, Class<?> type, Object instance) {
+    PostProcessEvent event = new PostProcessEvent();
+    event.begin();
+    processor.postProcess(type, instance, this);
+    event.component = type;
+    event.postProcessor = processor.getClass();
+    event.commit();
+  }
+
+  private Registration startRegistration() {
+    Registration registration = new Registration(currentRegistration.get());
+    currentRegistration.set(registration);
+    return registration;
+  }
+
+  /**
+   * Marks the threads that take part in one registration: the registering thread and the worker
+   * threads it starts to instantiate and post-process components. Threads started by components
+   * inherit the marker too, but it is only active until the registration returns.
+   */
+  private final class Registration implements AutoCloseable {
+    private final Registration enclosing;
+    private volatile boolean active = true;
+
+    private Registration(Registration enclosing) {
+      this.enclosing = enclosing;
+    }
+
+    @Override
+    public void close() {
+      active = false;
+      if (enclosing == null) currentRegistration.remove();
+      else currentRegistration.set(enclosing);
+    }
+  }
+
+  /** Adds the components of generated wiring code to this context. */
+  private final class GeneratedComponents implements Wiring.Registrar {
+    private final List<Class<?>> order = new ArrayList<>();
+
+    @Override
+    public <T> T singleton(Class<T> type, T instance) {
+      order.add(type);
+      instanceFactory.addGenerated(type, Lifetime.SINGELTON, () -> instance);
+      return instance;
+    }
+
+    @Override
+    public <T> Provider<T> prototype(Class<T> type, Supplier<T> factory) {
+      order.add(type);
+      ResolutionPlan plan = instanceFactory.addGenerated(type, Lifetime.PROTOTYPE, factory);
+      return () -> type.cast(plan.newInstance(null));
+    }
+
+    @Override
+    public <T> Provider<T> lazy(Class<T> type, Supplier<T> factory) {
+      order.add(type);
+      instanceFactory.addGenerated(type, Lifetime.LAZY, factory);
+      Binding binding = new Binding.Lazy(instanceFactory.getLazySingleton(type));
+      return () -> type.cast(binding.get(null));
     }
   }
 }
@@ -1,24 +1,307 @@
 package dev.aronba.toni.context.core;
 
+import dev.aronba.toni.context.event.EventBus;
+import dev.aronba.toni.context.internal.ClasspathElements;
+import dev.aronba.toni.context.internal.ClasspathFingerprint;
+import dev.aronba.toni.context.internal.ComponentIndex;
+import dev.aronba.toni.context.internal.StartupSnapshot;
+import dev.aronba.toni.context.jfr.ScanEvent;
+import dev.aronba.toni.context.processor.PostConstructPostProcessor;
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ClassInfoList;
 import io.github.classgraph.ScanResult;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ContextScanner {
   private static final Logger logger = LoggerFactory.getLogger(ContextScanner.class);
 
+  /** Components shipped with toni itself, which are not part of an application's index. */
+  private static final List<Class<?>> BUILT_IN_COMPONENTS =
+      List.of(PostConstructPostProcessor.class, EventBus.class);
+
+  private final List<String> basePackages;
+  private final List<String> acceptJars;
+  private final List<String> rejectJars;
+  private final int threads;
+  private final Path snapshot;
+
+  public ContextScanner() {
+    this(builder());
+  }
+
+  private ContextScanner(Builder builder) {
+    this.basePackages = List.copyOf(builder.basePackages);
+    this.acceptJars = List.copyOf(builder.acceptJars);
+    this.rejectJars = List.copyOf(builder.rejectJars);
+    this.threads = builder.threads;
+    this.snapshot = builder.snapshot;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
   public ApplicationContext scan() throws Exception {
-    try (ScanResult scanResult = new ClassGraph().enableAllInfo().acceptPackages("").scan()) {
-      ClassInfoList componentList =
-          scanResult.getClassesWithAnnotation("dev.aronba.toni.context.annotation.Component");
-      ApplicationContext applicationContext = new BasicApplicationContext();
-      applicationContext.register(componentList.loadClasses().toArray(new Class<?>[0]));
+    try {
+      BasicApplicationContext applicationContext = new BasicApplicationContext();
+      // first, so that their post-processors also see the components of generated wirings
+      applicationContext.register(BUILT_IN_COMPONENTS.toArray(new Class<?>[0]));
+      Set<Class<?>> wired = registerWirings(applicationContext);
+      if (snapshot == null) {
+        applicationContext.register(findComponents(applicationContext, wired));
+        return applicationContext;
+      }
+
+      String fingerprint =
+          ClasspathFingerprint.of(
+              classpathElements(),
+              List.of(basePackages.toString(), acceptJars.toString(), rejectJars.toString()));
+      Optional<StartupSnapshot> existing = readSnapshot(fingerprint);
+      if (existing.isPresent()) {
+        long start = System.nanoTime();
+        applicationContext.register(existing.get());
+        logger.info(
+            "Started from snapshot {} in {} ms", snapshot, (System.nanoTime() - start) / 1_000_000);
+        return applicationContext;
+      }
+
+      applicationContext.register(findComponents(applicationContext, wired));
+      writeSnapshot(applicationContext.createSnapshot(fingerprint));
       return applicationContext;
     } catch (Exception e) {
       logger.error(e.getMessage());
       throw e;
     }
   }
+
+  /**
+   * Registers the generated wirings of the base packages. Their components are created without
+   * reflection and left out of the scan result.
+   */
+  private Set<Class<?>> registerWirings(BasicApplicationContext applicationContext) {
+    Set<Class<?>> wired = new HashSet<>();
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    for (Wiring wiring : ServiceLoader.load(Wiring.class, classLoader)) {
+      if (!isInBasePackage(wiring.getClass())) continue;
+      long start = System.nanoTime();
+      applicationContext.register(wiring);
+      wired.addAll(wiring.components());
+      logger.info(
+          "Registered {} generated components of {} in {} ms",
+          wiring.components().size(),
+          wiring.getClass().getName(),
+          (System.nanoTime() - start) / 1_000_000);
+    }
+    return wired;
+  }
+
+  private Optional<StartupSnapshot> readSnapshot(String fingerprint) {
+    try {
+      Optional<StartupSnapshot> existing = StartupSnapshot.read(snapshot);
+      if (existing.isPresent() && !existing.get().fingerprint().equals(fingerprint)) {
+        logger.info("Classpath changed, ignoring snapshot {}", snapshot);
+        return Optional.empty();
+      }
+      return existing;
+    } catch (IOException e) {
+      logger.warn("Could not read snapshot {}: {}", snapshot, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private void writeSnapshot(StartupSnapshot startupSnapshot) {
+    try {
+      startupSnapshot.write(snapshot);
+      logger.info("Wrote snapshot {}", snapshot);
+    } catch (IOException e) {
+      logger.warn("Could not write snapshot {}: {}", snapshot, e.getMessage());
+    }
+  }
+
+  private Class<?>[] findComponents(ApplicationContext applicationContext, Set<Class<?>> wired)
+      throws Exception {
+    ScanEvent event = new ScanEvent();
+    event.begin();
+    long start = System.nanoTime();
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    Optional<ComponentIndex> index = ComponentIndex.load(classLoader);
+    List<Class<?>> components = new ArrayList<>();
+
+    if (index.isPresent()) {
+      for (Class<?> clazz : index.get().loadClasses(classLoader)) {
+        if (isInBasePackage(clazz)) components.add(clazz);
+      }
+      logger.info(
+          "Read component index in {} ms, found {} components",
+          (System.nanoTime() - start) / 1_000_000,
+          components.size());
+    }
+
+    Optional<List<Path>> classpath = ClasspathElements.of(classLoader);
+    if (classpath.isPresent() && !needsScan(classpath.get(), index.orElse(null))) {
+      logger.info("All classpath elements of the base packages are indexed, skipping the scan");
+    } else {
+      // ClassGraph is the fallback for directories and jars without an index, for example of
+      // libraries built without the processor, and for class loaders that hide their elements
+      try (ScanResult scanResult = scanClasspath(index.orElse(null))) {
+        ClassInfoList componentList =
+            scanResult.getClassesWithAnnotation("dev.aronba.toni.context.annotation.Component");
+        for (Class<?> clazz : componentList.loadClasses()) {
+          if (!components.contains(clazz)) components.add(clazz);
+        }
+        logger.info(
+            "Scanned {} classes in {} ms, found {} components",
+            scanResult.getAllClasses().size(),
+            (System.nanoTime() - start) / 1_000_000,
+            components.size());
+      }
+    }
+
+    components.removeAll(BUILT_IN_COMPONENTS);
+    components.removeAll(wired);
+    applicationContext.getStartupMetrics().recordScan(System.nanoTime() - start);
+    event.components = components.size();
+    event.commit();
+    return components.toArray(new Class<?>[0]);
+  }
+
+  /**
+   * Whether one of the directories and jars is neither indexed nor excluded by the jar filters and
+   * may hold classes of the base packages.
+   */
+  private boolean needsScan(List<Path> classpath, ComponentIndex index) throws IOException {
+    for (Path element : classpath) {
+      if (index != null && index.covers(element)) continue;
+      if (Files.isRegularFile(element)) {
+        String name = element.getFileName().toString();
+        if (!acceptJars.isEmpty() && !matchesAny(acceptJars, name)) continue;
+        if (matchesAny(rejectJars, name)) continue;
+      }
+      if (ClasspathElements.containsPackages(element, basePackages)) return true;
+    }
+    return false;
+  }
+
+  /** Scans the classpath elements that are not covered by the given index, if any. */
+  private ScanResult scanClasspath(ComponentIndex index) {
+    ClassGraph classGraph = classGraph();
+    if (index != null) classGraph.filterClasspathElements(path -> !isIndexed(index, path));
+    return threads > 0 ? classGraph.scan(threads) : classGraph.scan();
+  }
+
+  /**
+   * The directories and jars of the context class loader, indexed or not. ClassGraph only lists
+   * them if the class loader does not reveal its elements itself.
+   */
+  private List<Path> classpathElements() {
+    return ClasspathElements.of(Thread.currentThread().getContextClassLoader())
+        .orElseGet(() -> classGraph().getClasspathFiles().stream().map(File::toPath).toList());
+  }
+
+  private ClassGraph classGraph() {
+    // only class level annotations are needed, so field and method info is not collected
+    ClassGraph classGraph =
+        new ClassGraph()
+            .enableClassInfo()
+            .enableAnnotationInfo()
+            .acceptPackages(basePackages.toArray(new String[0]));
+    if (!acceptJars.isEmpty()) classGraph.acceptJars(acceptJars.toArray(new String[0]));
+    if (!rejectJars.isEmpty()) classGraph.rejectJars(rejectJars.toArray(new String[0]));
+    return classGraph;
+  }
+
+  private static boolean isIndexed(ComponentIndex index, String classpathElement) {
+    try {
+      return index.covers(Path.of(classpathElement));
+    } catch (InvalidPathException e) {
+      return false;
+    }
+  }
+
+  /** Whether the jar name matches one of the patterns, which may hold {@code *} wildcards. */
+  private static boolean matchesAny(List<String> patterns, String jarName) {
+    for (String pattern : patterns) {
+      String regex =
+          Arrays.stream(pattern.split("\\*", -1))
+              .map(Pattern::quote)
+              .collect(Collectors.joining(".*"));
+      if (jarName.matches(regex)) return true;
+    }
+    return false;
+  }
+
+  private boolean isInBasePackage(Class<?> clazz) {
+    if (basePackages.isEmpty()) return true;
+    for (String basePackage : basePackages) {
+      if (basePackage.isEmpty()
+          || clazz.getPackageName().equals(basePackage)
+          || clazz.getPackageName().startsWith(basePackage + ".")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public static class Builder {
+    private final List<String> basePackages = new ArrayList<>();
+    private final List<String> acceptJars = new ArrayList<>();
+    private final List<String> rejectJars = new ArrayList<>();
+    private int threads = 0;
+    private Path snapshot = null;
+
+    private Builder() {}
+
+    /** Packages (including sub packages) to look for components in. Defaults to everything. */
+    public Builder basePackages(String... packages) {
+      this.basePackages.addAll(List.of(packages));
+      return this;
+    }
+
+    /** Jar file names (wildcards allowed) that are scanned, all others are skipped. */
+    public Builder acceptJars(String... jars) {
+      this.acceptJars.addAll(List.of(jars));
+      return this;
+    }
+
+    /** Jar file names (wildcards allowed) that are never scanned. */
+    public Builder rejectJars(String... jars) {
+      this.rejectJars.addAll(List.of(jars));
+      return this;
+    }
+
+    /** Number of worker threads of the classpath scan, or 0 for ClassGraph's default. */
+    public Builder threads(int threads) {
+      if (threads < 0) throw new IllegalArgumentException("threads must not be negative");
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * File to keep a startup snapshot in. If it matches the current classpath, scanning and graph
+     * building are skipped; otherwise it is (re)written after a regular scan.
+     */
+    public Builder snapshot(Path snapshot) {
+      this.snapshot = snapshot;
+      return this;
+    }
+
+    public ContextScanner build() {
+      return new ContextScanner(this);
+    }
+  }
 }
@@ -2,5 +2,12 @@ package dev.aronba.toni.context.core;
 
 public enum Lifetime {
   SINGELTON,
-  PROTOTYPE
+  PROTOTYPE,
+  /** A singleton that is only created when it is first requested or injected. */
+  LAZY,
+  /**
+   * One instance per scope, see {@link ApplicationContext#createScope()}. Scoped components may
+   * depend on anything, but only prototypes and other scoped components may depend on them.
+   */
+  SCOPED
 }
@@ -0,0 +1,71 @@
+package dev.aronba.toni.context.core;
+
+import dev.aronba.toni.context.exception.InstatitationException;
+import dev.aronba.toni.context.exception.NoImplementationFoundException;
+import dev.aronba.toni.context.exception.UnsatisfiedDependencyException;
+import java.lang.reflect.Executable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Instantiates components level by level: all components of one dependency level are created at
+ * the same time on virtual threads, so startup time follows the critical path of the graph instead
+ * of the sum of all constructors.
+ */
+public class ParallelApplicationContext extends BasicApplicationContext {
+  private static final Logger logger = LoggerFactory.getLogger(ParallelApplicationContext.class);
+
+  @Override
+  protected void instantiateLevels(
+      List<List<Class<?>>> levels, Map<Class<?>, Executable> constructors)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (List<Class<?>> level : levels) {
+        List<Callable<Object>> tasks = new ArrayList<>(level.size());
+        for (Class<?> clazz : level) {
+          tasks.add(
+              () -> {
+                instantiate(clazz, constructors.get(clazz));
+                return null;
+              });
+        }
+        awaitAll(executor.invokeAll(tasks));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InstatitationException("Interrupted while instantiating components");
+    }
+    logger.info(
+        "Successfully created {} instances in {} levels", instances.size(), levels.size());
+  }
+
+  private void awaitAll(List<Future<Object>> futures)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException,
+          InterruptedException {
+    for (Future<Object> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        switch (e.getCause()) {
+          case InstatitationException cause -> throw cause;
+          case UnsatisfiedDependencyException cause -> throw cause;
+          case NoImplementationFoundException cause -> throw cause;
+          case RuntimeException cause -> throw cause;
+          default -> throw new InstatitationException(e.getCause().toString());
+        }
+      }
+    }
+  }
+}
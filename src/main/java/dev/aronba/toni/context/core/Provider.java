@@ -0,0 +1,11 @@
+package dev.aronba.toni.context.core;
+
+import java.util.function.Supplier;
+
+/**
+ * Injectable factory for a component. Inject {@code Provider<T>} (or a plain {@code Supplier<T>})
+ * to get a {@code PROTOTYPE} anew, a {@code LAZY} component on demand or a {@code SCOPED}
+ * component of the scope its consumer was created in, or else of the current scope. {@link #get()}
+ * runs the precomputed plan of {@code T} directly, without a lookup in the context.
+ */
+public interface Provider<T> extends Supplier<T> {}
@@ -0,0 +1,60 @@
+package dev.aronba.toni.context.core;
+
+import dev.aronba.toni.context.internal.Scope;
+
+/**
+ * A short-lived child of a {@link BasicApplicationContext}. It reuses the bindings of its parent
+ * and only holds the instances of {@code SCOPED} components, which are created on first use and
+ * dropped on {@link #close()}.
+ */
+public final class ScopedApplicationContext implements ApplicationContext {
+  private final BasicApplicationContext parent;
+  private final Scope scope;
+
+  ScopedApplicationContext(BasicApplicationContext parent, Scope scope) {
+    this.parent = parent;
+    this.scope = scope;
+  }
+
+  @Override
+  public <T> T get(Class<T> clazz) {
+    return parent.get(clazz, scope);
+  }
+
+  /**
+   * Components are registered with the parent context, a scope never changes the graph.
+   *
+   * @throws IllegalStateException always
+   */
+  @Override
+  public void register(Class<?>... classes) {
+    throw new IllegalStateException("Register components with the parent context");
+  }
+
+  @Override
+  public StartupMetrics getStartupMetrics() {
+    return parent.getStartupMetrics();
+  }
+
+  /** Opens a sibling scope: a new child of the same parent. */
+  @Override
+  public ScopedApplicationContext createScope() {
+    return parent.createScope();
+  }
+
+  /** Runs the operation with this scope as the current one, without closing it afterwards. */
+  @Override
+  public void runInScope(Runnable operation) {
+    scope.run(operation);
+  }
+
+  public boolean isClosed() {
+    return scope.isClosed();
+  }
+
+  /** Drops the instances of this scope. The parent context stays open. */
+  @Override
+  public void close() {
+    scope.close();
+  }
+}
@@ -0,0 +1,87 @@
+package dev.aronba.toni.context.core;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where the startup time of a context went. Phase durations add up over all {@code register}
+ * calls; component durations cover selecting the constructor and running it, post-processing
+ * durations cover all post-processors of a component.
+ */
+public class StartupMetrics {
+  private final AtomicLong scanNanos = new AtomicLong();
+  private final AtomicLong graphBuildingNanos = new AtomicLong();
+  private final AtomicLong sortingNanos = new AtomicLong();
+  private final Map<Class<?>, Long> instantiationNanos = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Long> postProcessingNanos = new ConcurrentHashMap<>();
+
+  public Duration getScanDuration() {
+    return Duration.ofNanos(scanNanos.get());
+  }
+
+  public Duration getGraphBuildingDuration() {
+    return Duration.ofNanos(graphBuildingNanos.get());
+  }
+
+  public Duration getSortingDuration() {
+    return Duration.ofNanos(sortingNanos.get());
+  }
+
+  public Map<Class<?>, Duration> getInstantiationDurations() {
+    return toDurations(instantiationNanos);
+  }
+
+  public Map<Class<?>, Duration> getPostProcessingDurations() {
+    return toDurations(postProcessingNanos);
+  }
+
+  public Duration getInstantiationDuration(Class<?> component) {
+    return Duration.ofNanos(instantiationNanos.getOrDefault(component, 0L));
+  }
+
+  public Duration getPostProcessingDuration(Class<?> component) {
+    return Duration.ofNanos(postProcessingNanos.getOrDefault(component, 0L));
+  }
+
+  void recordScan(long nanos) {
+    scanNanos.addAndGet(nanos);
+  }
+
+  void recordGraphBuilding(long nanos) {
+    graphBuildingNanos.addAndGet(nanos);
+  }
+
+  void recordSorting(long nanos) {
+    sortingNanos.addAndGet(nanos);
+  }
+
+  void recordInstantiation(Class<?> component, long nanos) {
+    instantiationNanos.merge(component, nanos, Long::sum);
+  }
+
+  void recordPostProcessing(Class<?> component, long nanos) {
+    postProcessingNanos.merge(component, nanos, Long::sum);
+  }
+
+  private static Map<Class<?>, Duration> toDurations(Map<Class<?>, Long> nanos) {
+    Map<Class<?>, Duration> durations = new HashMap<>();
+    nanos.forEach((component, value) -> durations.put(component, Duration.ofNanos(value)));
+    return Map.copyOf(durations);
+  }
+
+  @Override
+  public String toString() {
+    return "StartupMetrics{scan="
+        + getScanDuration()
+        + ", graphBuilding="
+        + getGraphBuildingDuration()
+        + ", sorting="
+        + getSortingDuration()
+        + ", components="
+        + instantiationNanos.size()
+        + "}";
+  }
+}
@@ -0,0 +1,31 @@
+package dev.aronba.toni.context.core;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Wiring code generated at compile time for the classes annotated with {@code @GenerateWiring}. It
+ * calls the selected constructors directly in dependency order, so registering it needs no
+ * reflection over constructors or generic types. Generated wirings are found by the {@link
+ * ContextScanner} through {@link java.util.ServiceLoader} and used instead of reflection for the
+ * components they cover.
+ */
+public interface Wiring {
+
+  /** The components created by {@link #wire}, in dependency order. */
+  List<Class<?>> components();
+
+  /** Creates every component through the registrar, each after its dependencies. */
+  void wire(Registrar registrar);
+
+  /** Hands the components created by generated code over to the context. */
+  interface Registrar {
+    <T> T singleton(Class<T> type, T instance);
+
+    /** Registers a {@code PROTOTYPE}; every {@code get()} creates and post-processes one. */
+    <T> Provider<T> prototype(Class<T> type, Supplier<T> factory);
+
+    /** Registers a {@code LAZY} component that is created on the first {@code get()}. */
+    <T> Provider<T> lazy(Class<T> type, Supplier<T> factory);
+  }
+}
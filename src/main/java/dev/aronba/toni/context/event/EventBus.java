@@ -0,0 +1,199 @@
+package dev.aronba.toni.context.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import dev.aronba.toni.context.annotation.Order;
+import dev.aronba.toni.context.annotation.PostProcessor;
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.Lifetime;
+import dev.aronba.toni.context.exception.EventDeliveryException;
+import dev.aronba.toni.context.exception.PostProcessingException;
+import dev.aronba.toni.context.processor.ComponentPostProcessor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers events to the {@link Listen} methods of the components in the same context. The
+ * listeners are collected while post-processing the components and, per event class, compiled once
+ * into an array of method handles bound to their component, so publishing an event only calls
+ * them. Listeners run ordered by the {@link Order} of their component, then by class and method
+ * name, so the order does not depend on which component was post-processed first. A {@code LAZY}
+ * component is subscribed once it is created, events published before are not delivered to it.
+ * The bus is a singleton component itself, so components inject it to publish.
+ */
+@Component
+@PostProcessor
+public class EventBus implements ComponentPostProcessor {
+  private static final Logger logger = LoggerFactory.getLogger(EventBus.class);
+  private static final MethodHandle[] NONE = new MethodHandle[0];
+  private static final Executor ASYNC_DELIVERY =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("toni-event-", 0).factory());
+
+  /**
+   * The {@code @Listen} methods of every class and its superclasses, looked up once as {@code
+   * (Object,Object)void}. A method overridden further down is only called once, as the override.
+   */
+  private static final ClassValue<ListenerMethod[]> LISTENER_METHODS =
+      new ClassValue<>() {
+        @Override
+        protected ListenerMethod[] computeValue(Class<?> type) {
+          List<ListenerMethod> methods = new ArrayList<>();
+          Set<String> declared = new HashSet<>();
+          for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+              if (method.isBridge()) continue;
+              String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+              if (declared.add(signature) && method.isAnnotationPresent(Listen.class)) {
+                methods.add(listenerMethod(method, signature));
+              }
+            }
+          }
+          return methods.toArray(new ListenerMethod[0]);
+        }
+      };
+
+  // sorted by order and key, a listener is added before the dispatch table is replaced
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  // replaced as a whole, so a lookup racing with a new listener can not cache a stale entry in it
+  private volatile Map<Class<?>, MethodHandle[]> byEventType = new ConcurrentHashMap<>();
+
+  /**
+   * Calls every listener of the event on the current thread. The first listener that throws stops
+   * the delivery; runtime exceptions and errors are rethrown as they are.
+   */
+  public void publish(Object event) {
+    for (MethodHandle listener : listenersOf(event.getClass())) {
+      deliver(listener, event);
+    }
+  }
+
+  /**
+   * Calls every listener of the event on its own virtual thread. The returned future completes
+   * once all listeners returned, exceptionally if one of them threw.
+   */
+  public CompletableFuture<Void> publishAsync(Object event) {
+    MethodHandle[] listeners = listenersOf(event.getClass());
+    if (listeners.length == 0) return CompletableFuture.completedFuture(null);
+    CompletableFuture<?>[] deliveries = new CompletableFuture<?>[listeners.length];
+    for (int i = 0; i < listeners.length; i++) {
+      MethodHandle listener = listeners[i];
+      deliveries[i] = CompletableFuture.runAsync(() -> deliver(listener, event), ASYNC_DELIVERY);
+    }
+    return CompletableFuture.allOf(deliveries);
+  }
+
+  /** How many listeners an event of the given class is delivered to. */
+  public int listenerCount(Class<?> eventType) {
+    return listenersOf(eventType).length;
+  }
+
+  /**
+   * Only singletons and lazy components are subscribed: a listener per prototype or scoped instance
+   * would keep every one of them alive.
+   */
+  @Override
+  public boolean supports(Class<?> type) {
+    if (LISTENER_METHODS.get(type).length == 0) return false;
+    Component component = type.getAnnotation(Component.class);
+    Lifetime lifetime = component == null ? Lifetime.SINGELTON : component.value();
+    if (lifetime == Lifetime.PROTOTYPE || lifetime == Lifetime.SCOPED) {
+      logger.warn("Ignoring the listeners of {}, it is {}", type.getName(), lifetime);
+      return false;
+    }
+    return true;
+  }
+
+  /** Listeners of components registered before the bus are subscribed as well. */
+  @Override
+  public boolean processExistingComponents() {
+    return true;
+  }
+
+  @Override
+  public synchronized void postProcess(
+      Class<?> type, Object instance, ApplicationContext applicationContext) {
+    Order order = type.getAnnotation(Order.class);
+    int position = order == null ? Integer.MAX_VALUE : order.value();
+    for (ListenerMethod method : LISTENER_METHODS.get(type)) {
+      Listener listener =
+          new Listener(
+              method.eventType(),
+              position,
+              type.getName() + "#" + method.signature(),
+              method.handle().bindTo(instance));
+      int index = 0;
+      while (index < listeners.size() && listeners.get(index).precedes(listener)) index++;
+      listeners.add(index, listener);
+    }
+    byEventType = new ConcurrentHashMap<>();
+  }
+
+  private MethodHandle[] listenersOf(Class<?> eventType) {
+    Map<Class<?>, MethodHandle[]> table = byEventType;
+    // get first, computeIfAbsent with a capturing method reference would allocate on every call
+    MethodHandle[] found = table.get(eventType);
+    return found != null ? found : table.computeIfAbsent(eventType, this::findListeners);
+  }
+
+  private MethodHandle[] findListeners(Class<?> eventType) {
+    MethodHandle[] matching =
+        listeners.stream()
+            .filter(listener -> listener.eventType().isAssignableFrom(eventType))
+            .map(Listener::handle)
+            .toArray(MethodHandle[]::new);
+    return matching.length == 0 ? NONE : matching;
+  }
+
+  private static void deliver(MethodHandle listener, Object event) {
+    try {
+      listener.invokeExact(event);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new EventDeliveryException(
+          "A listener failed on " + event.getClass().getName() + ": " + e, e);
+    }
+  }
+
+  private static ListenerMethod listenerMethod(Method method, String signature) {
+    if (method.getParameterCount() != 1 || method.getParameterTypes()[0].isPrimitive()) {
+      throw new PostProcessingException(
+          "The listener " + method + " must take exactly one event object");
+    }
+    try {
+      method.setAccessible(true);
+      MethodHandle handle =
+          MethodHandles.lookup()
+              .unreflect(method)
+              .asType(MethodType.methodType(void.class, Object.class, Object.class));
+      return new ListenerMethod(method.getParameterTypes()[0], signature, handle);
+    } catch (Exception e) {
+      throw new PostProcessingException("The listener " + method + " can not be called: " + e);
+    }
+  }
+
+  /** A {@code @Listen} method as {@code (component, event)void}. */
+  private record ListenerMethod(Class<?> eventType, String signature, MethodHandle handle) {}
+
+  /** A {@code @Listen} method bound to its component, as {@code (event)void}. */
+  private record Listener(Class<?> eventType, int order, String key, MethodHandle handle) {
+    boolean precedes(Listener other) {
+      return order != other.order ? order < other.order : key.compareTo(other.key) < 0;
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package dev.aronba.toni.context.exception;
+
+public class EventDeliveryException extends RuntimeException {
+  public EventDeliveryException(String message) {
+    super(message);
+  }
+
+  public EventDeliveryException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
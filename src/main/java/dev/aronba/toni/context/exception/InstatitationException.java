@@ -1,10 +1,18 @@
 package dev.aronba.toni.context.exception;
 
-public class InstatitationException extends Exception {
+/**
+ * A component could not be created. Unchecked, because components created on demand by {@code
+ * get()} or a provider fail outside of {@code register}.
+ */
+public class InstatitationException extends RuntimeException {
   public InstatitationException(String message) {
     super(message);
   }
 
+  public InstatitationException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
   public InstatitationException(ReflectiveOperationException e) {
     super(e);
   }
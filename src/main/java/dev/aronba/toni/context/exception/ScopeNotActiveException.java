@@ -0,0 +1,7 @@
+package dev.aronba.toni.context.exception;
+
+public class ScopeNotActiveException extends RuntimeException {
+  public ScopeNotActiveException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,123 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.exception.ScopeNotActiveException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/** Supplies one constructor argument of a {@link ResolutionPlan}. */
+sealed interface ArgumentResolver {
+  /**
+   * @param scope the scope the argument is resolved in, or {@code null} outside of any scope
+   */
+  Object resolve(Scope scope) throws InvocationTargetException;
+
+  /** Whether resolving the argument needs a scope. */
+  default boolean needsScope() {
+    return false;
+  }
+
+  /** A singleton, or any other value that is fixed once the plan is built. */
+  record Constant(Object value) implements ArgumentResolver {
+    @Override
+    public Object resolve(Scope scope) {
+      return value;
+    }
+  }
+
+  /**
+   * A {@code Provider<T>} whose target may need a scope. Components created within a scope get a
+   * provider bound to that scope, all others share one that resolves the current scope.
+   */
+  record ScopedProvider(BoundProvider<?> shared) implements ArgumentResolver {
+    @Override
+    public Object resolve(Scope scope) {
+      if (scope == null) return shared;
+      return new BoundProvider<>(shared.type(), shared.resolver(), scope);
+    }
+  }
+
+  /** A nested prototype that is created anew every time. */
+  record Prototype(ResolutionPlan plan) implements ArgumentResolver {
+    @Override
+    public Object resolve(Scope scope) throws InvocationTargetException {
+      return plan.instantiatePrototype(scope);
+    }
+
+    @Override
+    public boolean needsScope() {
+      return plan.needsScope();
+    }
+  }
+
+  /** A {@code LAZY} component, created by whichever consumer needs it first. */
+  record Lazy(LazySingleton singleton) implements ArgumentResolver {
+    @Override
+    public Object resolve(Scope scope) throws InvocationTargetException {
+      return singleton.get();
+    }
+  }
+
+  /** A {@code SCOPED} component, created once per scope in its fixed slot. */
+  record Scoped(int slot, ResolutionPlan plan) implements ArgumentResolver {
+    @Override
+    public Object resolve(Scope scope) throws InvocationTargetException {
+      if (scope == null) scope = Scope.current();
+      if (scope == null) {
+        throw new ScopeNotActiveException(plan.getType().getName() + " needs an active scope");
+      }
+      return scope.get(slot, plan);
+    }
+
+    @Override
+    public boolean needsScope() {
+      return true;
+    }
+  }
+
+  /**
+   * Every implementation of a type as a new {@code List}, {@code Set} or array. Used when an
+   * element is not constant, or for arrays, which consumers could otherwise modify for each other.
+   */
+  record All(Class<?> container, Class<?> elementType, ArgumentResolver[] elements)
+      implements ArgumentResolver {
+    @Override
+    public Object resolve(Scope scope) throws InvocationTargetException {
+      Object[] values = (Object[]) Array.newInstance(elementType, elements.length);
+      for (int i = 0; i < values.length; i++) {
+        values[i] = elements[i].resolve(scope);
+      }
+      return collect(container, values);
+    }
+
+    @Override
+    public boolean needsScope() {
+      for (ArgumentResolver element : elements) {
+        if (element.needsScope()) return true;
+      }
+      return false;
+    }
+
+    /** Immutable, array-backed and in the given order, except for arrays themselves. */
+    static Object collect(Class<?> container, Object[] values) {
+      if (container.equals(List.class)) return List.of(values);
+      if (container.equals(Set.class)) return new ArraySet<>(List.of(values));
+      return values;
+    }
+  }
+
+  /** An {@code Optional<T>} parameter around a present, non constant dependency. */
+  record Present(ArgumentResolver inner) implements ArgumentResolver {
+    @Override
+    public Object resolve(Scope scope) throws InvocationTargetException {
+      return Optional.of(inner.resolve(scope));
+    }
+
+    @Override
+    public boolean needsScope() {
+      return inner.needsScope();
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package dev.aronba.toni.context.internal;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Immutable set over an array of distinct elements that keeps their order. Made for the small sets
+ * of injected implementations, which are iterated far more often than searched. Public so that
+ * generated wiring code injects the same set as reflective wiring.
+ */
+public final class ArraySet<E> extends AbstractSet<E> {
+  private final List<E> elements;
+
+  public ArraySet(List<E> elements) {
+    this.elements = List.copyOf(elements);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return elements.iterator();
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+}
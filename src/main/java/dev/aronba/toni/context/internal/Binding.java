@@ -0,0 +1,60 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.exception.InstatitationException;
+import dev.aronba.toni.context.exception.ScopeNotActiveException;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * How a registered class is served by {@code ApplicationContext.get}. Bindings are computed once
+ * after registration, so a lookup does not need to inspect annotations again.
+ */
+public sealed interface Binding
+    permits Binding.Singleton, Binding.Prototype, Binding.Lazy, Binding.Scoped {
+
+  /**
+   * @param scope the scope of the lookup, or {@code null} outside of any scope
+   */
+  Object get(Scope scope);
+
+  record Singleton(Object instance) implements Binding {
+    @Override
+    public Object get(Scope scope) {
+      return instance;
+    }
+  }
+
+  record Prototype(ResolutionPlan plan) implements Binding {
+    @Override
+    public Object get(Scope scope) {
+      return plan.newInstance(scope);
+    }
+  }
+
+  record Lazy(LazySingleton singleton) implements Binding {
+    @Override
+    public Object get(Scope scope) {
+      try {
+        return singleton.get();
+      } catch (InvocationTargetException e) {
+        throw new InstatitationException(
+            "Could not create " + singleton.getType().getName(), e.getCause());
+      }
+    }
+  }
+
+  record Scoped(int slot, ResolutionPlan plan) implements Binding {
+    @Override
+    public Object get(Scope scope) {
+      if (scope == null) scope = Scope.current();
+      if (scope == null) {
+        throw new ScopeNotActiveException(plan.getType().getName() + " needs an active scope");
+      }
+      try {
+        return scope.get(slot, plan);
+      } catch (InvocationTargetException e) {
+        throw new InstatitationException(
+            "Could not create " + plan.getType().getName(), e.getCause());
+      }
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.core.Provider;
+import dev.aronba.toni.context.exception.InstatitationException;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * A {@link Provider} bound to the resolver that was planned for its type, and to the scope of the
+ * component it was injected into. Without a scope it resolves scoped components in the current one.
+ */
+record BoundProvider<T>(Class<T> type, ArgumentResolver resolver, Scope scope)
+    implements Provider<T> {
+
+  /**
+   * @throws InstatitationException if the constructor of the instance failed
+   */
+  @Override
+  public T get() {
+    try {
+      return type.cast(resolver.resolve(scope));
+    } catch (InvocationTargetException e) {
+      throw new InstatitationException("Could not create " + type.getName(), e.getCause());
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package dev.aronba.toni.context.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Lists the directories and jars of a class loader without scanning them: the URLs of URL class
+ * loaders, {@code java.class.path} for the application class loader and the {@code Class-Path}
+ * manifest entries of those jars.
+ */
+public class ClasspathElements {
+  private static final String APP_CLASS_LOADER = "jdk.internal.loader.ClassLoaders$AppClassLoader";
+
+  private ClasspathElements() {}
+
+  /**
+   * The directories and jars of the class loader and its parents, or empty if one of them does not
+   * reveal its elements, for example a nested jar class loader or a module layer.
+   */
+  public static Optional<List<Path>> of(ClassLoader classLoader) {
+    List<ClassLoader> classLoaders = new ArrayList<>();
+    for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+      classLoaders.add(0, loader);
+    }
+
+    Set<Path> elements = new LinkedHashSet<>();
+    for (ClassLoader loader : classLoaders) {
+      if (loader == ClassLoader.getPlatformClassLoader()) continue;
+      if (loader instanceof URLClassLoader urlClassLoader) {
+        for (URL url : urlClassLoader.getURLs()) {
+          Optional<Path> path = toPath(url);
+          if (path.isEmpty()) return Optional.empty();
+          elements.add(path.get());
+        }
+      } else if (loader.getClass().getName().equals(APP_CLASS_LOADER)
+          && System.getProperty("jdk.module.path") == null) {
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+          if (entry.isEmpty()) continue;
+          try {
+            elements.add(Path.of(entry).toAbsolutePath().normalize());
+          } catch (InvalidPathException e) {
+            return Optional.empty();
+          }
+        }
+      } else {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(withManifestClassPaths(elements));
+  }
+
+  /**
+   * Whether the directory or jar may hold classes of one of the packages, or any classes if no
+   * packages are given. Only directory names and jar entry names are read.
+   */
+  public static boolean containsPackages(Path element, List<String> packages) throws IOException {
+    List<String> paths = packages.stream().map(pkg -> pkg.replace('.', '/')).toList();
+    if (Files.isDirectory(element)) {
+      if (paths.isEmpty()) return true;
+      for (String path : paths) {
+        if (path.isEmpty() || Files.isDirectory(element.resolve(path))) return true;
+      }
+      return false;
+    }
+    if (!Files.isRegularFile(element)) return false;
+
+    try (JarFile jar = new JarFile(element.toFile())) {
+      Enumeration<JarEntry> entries = jar.entries();
+      while (entries.hasMoreElements()) {
+        String name = entries.nextElement().getName();
+        if (!name.endsWith(".class")) continue;
+        if (paths.isEmpty()) return true;
+        for (String path : paths) {
+          if (path.isEmpty() || name.startsWith(path + "/")) return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** Adds the jars referenced by the {@code Class-Path} of jar manifests, like the JDK does. */
+  private static List<Path> withManifestClassPaths(Set<Path> elements) {
+    Set<Path> all = new LinkedHashSet<>(elements);
+    Deque<Path> pending = new ArrayDeque<>(elements);
+    while (!pending.isEmpty()) {
+      Path element = pending.poll();
+      if (!Files.isRegularFile(element)) continue;
+      for (Path referenced : manifestClassPath(element)) {
+        if (all.add(referenced)) pending.add(referenced);
+      }
+    }
+    return List.copyOf(all);
+  }
+
+  private static List<Path> manifestClassPath(Path jar) {
+    try (JarFile jarFile = new JarFile(jar.toFile())) {
+      Manifest manifest = jarFile.getManifest();
+      if (manifest == null) return List.of();
+      String classPath = manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+      if (classPath == null || classPath.isBlank()) return List.of();
+
+      List<Path> referenced = new ArrayList<>();
+      URI base = jar.toUri();
+      for (String entry : classPath.strip().split("\\s+")) {
+        try {
+          URI uri = base.resolve(entry);
+          if ("file".equals(uri.getScheme())) referenced.add(Path.of(uri).normalize());
+        } catch (IllegalArgumentException e) {
+          // not a valid URL, the JDK ignores it as well
+        }
+      }
+      return referenced;
+    } catch (IOException e) {
+      return List.of();
+    }
+  }
+
+  private static Optional<Path> toPath(URL url) {
+    if (!"file".equals(url.getProtocol())) return Optional.empty();
+    try {
+      return Optional.of(Path.of(url.toURI()).toAbsolutePath().normalize());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+}
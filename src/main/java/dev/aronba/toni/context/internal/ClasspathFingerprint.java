@@ -0,0 +1,62 @@
+package dev.aronba.toni.context.internal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hashes the name, size and modification time of every classpath element. For class directories
+ * every contained file is included, so a recompiled class changes the fingerprint as well.
+ */
+public class ClasspathFingerprint {
+
+  private ClasspathFingerprint() {}
+
+  /**
+   * Fingerprints the directories and jars a scan reads, together with settings that influence what
+   * it finds.
+   */
+  public static String of(List<Path> classpath, List<String> settings) throws IOException {
+    MessageDigest digest = sha256();
+    for (String setting : settings) {
+      digest.update((setting + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+    for (Path path : classpath) {
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> files = Files.walk(path)) {
+          files.filter(Files::isRegularFile).sorted().forEach(file -> update(digest, file));
+        }
+      } else if (Files.exists(path)) {
+        update(digest, path);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static void update(MessageDigest digest, Path file) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      String line =
+          file + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis() + "\n";
+      digest.update(line.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
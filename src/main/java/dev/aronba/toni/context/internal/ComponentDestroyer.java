@@ -0,0 +1,125 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.annotation.PreDestroy;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Destroys components in waves: the components of one wave are destroyed at the same time on
+ * virtual threads, each by its {@link PreDestroy} methods and then {@link AutoCloseable#close}. A
+ * component that does not stop within the timeout is interrupted and left behind, and failures are
+ * only logged, so one broken component can neither hold up nor abort the shutdown of the others.
+ */
+public final class ComponentDestroyer {
+  private static final Logger logger = LoggerFactory.getLogger(ComponentDestroyer.class);
+
+  /** The {@code @PreDestroy} methods of every class, looked up once as {@code (Object)void}. */
+  private static final ClassValue<MethodHandle[]> PRE_DESTROY_METHODS =
+      new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+          List<MethodHandle> handles = new ArrayList<>();
+          for (Method method : type.getDeclaredMethods()) {
+            if (!method.isAnnotationPresent(PreDestroy.class)) continue;
+            try {
+              method.setAccessible(true);
+              handles.add(
+                  MethodHandles.lookup()
+                      .unreflect(method)
+                      .asType(MethodType.methodType(void.class, Object.class)));
+            } catch (Exception e) {
+              logger.warn("The PreDestroy {} can not be called: {}", method, e.toString());
+            }
+          }
+          return handles.toArray(new MethodHandle[0]);
+        }
+      };
+
+  private final Duration timeout;
+
+  public ComponentDestroyer(Duration timeout) {
+    this.timeout = timeout;
+  }
+
+  /** Whether closing the context has to do anything for the component. */
+  public static boolean needsDestroy(Class<?> type, Object instance) {
+    return instance instanceof AutoCloseable || PRE_DESTROY_METHODS.get(type).length > 0;
+  }
+
+  /**
+   * Destroys the instances wave by wave.
+   *
+   * @return the number of components that failed or did not stop in time
+   */
+  public int destroy(List<List<Class<?>>> waves, Map<Class<?>, Object> instances) {
+    int failed = 0;
+    ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("toni-destroy-", 0).factory());
+    try {
+      for (List<Class<?>> wave : waves) {
+        List<Future<Void>> futures = new ArrayList<>(wave.size());
+        for (Class<?> type : wave) {
+          Object instance = instances.get(type);
+          futures.add(
+              executor.submit(
+                  () -> {
+                    destroy(type, instance);
+                    return null;
+                  }));
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (int i = 0; i < futures.size(); i++) {
+          if (!await(futures.get(i), wave.get(i), deadline)) failed++;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.warn("Interrupted while closing the context, not all components were destroyed");
+    } finally {
+      // does not wait for components that ignored the interrupt of their timeout
+      executor.shutdownNow();
+    }
+    return failed;
+  }
+
+  private boolean await(Future<Void> future, Class<?> type, long deadline)
+      throws InterruptedException {
+    try {
+      future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      return true;
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      logger.warn("{} did not stop within {} ms", type.getName(), timeout.toMillis());
+    } catch (ExecutionException e) {
+      logger.warn("Could not destroy {}", type.getName(), e.getCause());
+    }
+    return false;
+  }
+
+  private static void destroy(Class<?> type, Object instance) throws Exception {
+    for (MethodHandle method : PRE_DESTROY_METHODS.get(type)) {
+      try {
+        method.invokeExact(instance);
+      } catch (Exception | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }
+    if (instance instanceof AutoCloseable closeable) closeable.close();
+  }
+}
@@ -0,0 +1,120 @@
+package dev.aronba.toni.context.internal;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Compile time index of the component classes of a directory or jar. Each line holds the binary
+ * class name followed by its public constructor signatures: {@code name=param,param;param}, or
+ * just the name if it has no public constructor. The index is written by the {@code
+ * ComponentIndexProcessor}; the {@code ContextScanner} reads every index on the classpath and only
+ * scans the classpath elements without one.
+ */
+public class ComponentIndex {
+  public static final String LOCATION = "META-INF/toni/components.idx";
+
+  private final Map<String, List<String>> entries = new LinkedHashMap<>();
+  // the directories and jars the index was read from
+  private final Set<Path> roots = new HashSet<>();
+
+  public static Optional<ComponentIndex> load(ClassLoader classLoader) throws IOException {
+    Enumeration<URL> resources = classLoader.getResources(LOCATION);
+    if (!resources.hasMoreElements()) return Optional.empty();
+
+    ComponentIndex index = new ComponentIndex();
+    while (resources.hasMoreElements()) {
+      URL resource = resources.nextElement();
+      try (InputStream in = resource.openStream()) {
+        index.read(in);
+      }
+      Path root = rootOf(resource);
+      if (root != null) index.roots.add(root);
+    }
+    return Optional.of(index);
+  }
+
+  public void read(InputStream in) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isBlank() || line.startsWith("#")) continue;
+      int separator = line.indexOf('=');
+      String className = separator < 0 ? line : line.substring(0, separator);
+      List<String> constructors =
+          separator < 0 ? List.of() : List.of(line.substring(separator + 1).split(";", -1));
+      entries.put(className.strip(), constructors);
+    }
+  }
+
+  public void write(OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writer.write("# Generated by dev.aronba.toni.processor.ComponentIndexProcessor\n");
+    for (var entry : entries.entrySet()) {
+      writer.write(entry.getKey());
+      if (!entry.getValue().isEmpty()) writer.write("=" + String.join(";", entry.getValue()));
+      writer.write("\n");
+    }
+    writer.flush();
+  }
+
+  public void add(String className, List<String> constructorSignatures) {
+    entries.put(className, List.copyOf(constructorSignatures));
+  }
+
+  public void remove(String className) {
+    entries.remove(className);
+  }
+
+  public Set<String> getClassNames() {
+    return Collections.unmodifiableSet(entries.keySet());
+  }
+
+  public List<String> getConstructorSignatures(String className) {
+    return entries.getOrDefault(className, List.of());
+  }
+
+  /** Whether the given directory or jar has an index, so it does not need to be scanned. */
+  public boolean covers(Path classpathElement) {
+    return roots.contains(classpathElement.toAbsolutePath().normalize());
+  }
+
+  public List<Class<?>> loadClasses(ClassLoader classLoader) throws ClassNotFoundException {
+    List<Class<?>> classes = new ArrayList<>(entries.size());
+    for (String className : entries.keySet()) {
+      classes.add(Class.forName(className, false, classLoader));
+    }
+    return classes;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * The directory or jar an index was read from, or {@code null} if it is neither, for example a
+   * nested jar.
+   */
+  private static Path rootOf(URL resource) {
+    try {
+      return switch (resource.getProtocol()) {
+        case "jar" -> {
+          String file = resource.getPath();
+          yield Path.of(new URI(file.substring(0, file.indexOf("!/")))).normalize();
+        }
+        case "file" -> {
+          Path path = Path.of(resource.toURI());
+          // META-INF/toni/components.idx
+          yield path.getParent().getParent().getParent().toAbsolutePath().normalize();
+        }
+        default -> null;
+      };
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
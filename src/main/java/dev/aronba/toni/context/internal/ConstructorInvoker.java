@@ -0,0 +1,167 @@
+package dev.aronba.toni.context.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A constructor or factory method compiled once into a {@link MethodHandle} with a fixed {@code
+ * (Object[])Object} layout. The parameter metadata is read a single time, so creating further
+ * instances does not clone the reflection arrays or go through {@link Constructor#newInstance}.
+ */
+final class ConstructorInvoker {
+  private static final MethodHandle SUPPLIER_GET;
+
+  static {
+    try {
+      SUPPLIER_GET =
+          MethodHandles.publicLookup()
+              .findVirtual(Supplier.class, "get", MethodType.methodType(Object.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static final Class<?>[] NO_TYPES = new Class<?>[0];
+
+  private final Class<?>[] parameterTypes;
+  private final Type[] genericParameterTypes;
+  private final Parameter[] parameters;
+  private final MethodHandle handle;
+  private final Kind kind;
+  private final Class<?> receiverType;
+
+  private ConstructorInvoker(
+      Class<?>[] parameterTypes,
+      Type[] genericParameterTypes,
+      Parameter[] parameters,
+      MethodHandle handle,
+      Kind kind,
+      Class<?> receiverType) {
+    this.parameterTypes = parameterTypes;
+    this.genericParameterTypes = genericParameterTypes;
+    this.parameters = parameters;
+    this.handle = handle;
+    this.kind = kind;
+    this.receiverType = receiverType;
+  }
+
+  /** Generated wiring code creates the instance itself, the factory is called without arguments. */
+  static ConstructorInvoker of(Supplier<?> factory) {
+    MethodHandle handle =
+        SUPPLIER_GET
+            .bindTo(factory)
+            .asType(MethodType.genericMethodType(0))
+            .asSpreader(Object[].class, 0);
+    return new ConstructorInvoker(
+        NO_TYPES, new Type[0], new Parameter[0], handle, Kind.GENERATED, null);
+  }
+
+  static ConstructorInvoker of(Constructor<?> constructor) throws IllegalAccessException {
+    constructor.trySetAccessible();
+    int parameterCount = constructor.getParameterCount();
+    MethodHandle handle =
+        MethodHandles.lookup()
+            .unreflectConstructor(constructor)
+            .asType(MethodType.genericMethodType(parameterCount))
+            .asSpreader(Object[].class, parameterCount);
+    return new ConstructorInvoker(
+        constructor.getParameterTypes(),
+        constructor.getGenericParameterTypes(),
+        constructor.getParameters(),
+        handle,
+        Kind.CONSTRUCTOR,
+        null);
+  }
+
+  /**
+   * A {@code @Provides} method. Unless it is static, the component declaring it is passed as the
+   * first argument.
+   */
+  static ConstructorInvoker of(Method method) throws IllegalAccessException {
+    method.trySetAccessible();
+    boolean isStatic = Modifier.isStatic(method.getModifiers());
+    int arity = method.getParameterCount() + (isStatic ? 0 : 1);
+    MethodHandle handle =
+        MethodHandles.lookup()
+            .unreflect(method)
+            .asType(MethodType.genericMethodType(arity))
+            .asSpreader(Object[].class, arity);
+    return new ConstructorInvoker(
+        method.getParameterTypes(),
+        method.getGenericParameterTypes(),
+        method.getParameters(),
+        handle,
+        method.getReturnType().equals(CompletableFuture.class)
+            ? Kind.ASYNC_FACTORY_METHOD
+            : Kind.FACTORY_METHOD,
+        isStatic ? null : method.getDeclaringClass());
+  }
+
+  /**
+   * The same invoker without the reflected parameter metadata, which is only needed to plan the
+   * arguments. Parameters and generic types keep their executable and its annotations alive.
+   */
+  ConstructorInvoker withoutMetadata() {
+    return new ConstructorInvoker(
+        NO_TYPES, new Type[0], new Parameter[0], handle, kind, receiverType);
+  }
+
+  Object newInstance(Object[] args) throws InvocationTargetException {
+    try {
+      return handle.invokeExact(args);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  int getParameterCount() {
+    return parameters.length;
+  }
+
+  Class<?>[] getParameterTypes() {
+    return parameterTypes.clone();
+  }
+
+  Type getGenericParameterType(int index) {
+    return genericParameterTypes[index];
+  }
+
+  Parameter getParameter(int index) {
+    return parameters[index];
+  }
+
+  boolean isGenerated() {
+    return kind == Kind.GENERATED;
+  }
+
+  /** The component a factory method is called on, or {@code null}. */
+  Class<?> getReceiverType() {
+    return receiverType;
+  }
+
+  /** Whether this is a factory method, which has no annotations on the type it creates. */
+  boolean isFactoryMethod() {
+    return kind == Kind.FACTORY_METHOD || kind == Kind.ASYNC_FACTORY_METHOD;
+  }
+
+  /** Whether a factory method returns a {@code CompletableFuture} of the instance. */
+  boolean isAsync() {
+    return kind == Kind.ASYNC_FACTORY_METHOD;
+  }
+
+  private enum Kind {
+    CONSTRUCTOR,
+    FACTORY_METHOD,
+    ASYNC_FACTORY_METHOD,
+    GENERATED
+  }
+}
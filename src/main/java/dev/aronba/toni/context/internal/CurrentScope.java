@@ -0,0 +1,60 @@
+package dev.aronba.toni.context.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The scope bound to the running thread by {@code runInScope}, and to every thread forked inside
+ * of it with structured concurrency. It is held in a {@link ScopedValue} when the JVM runs with
+ * {@code --enable-preview} on JDK 23. Otherwise the preview class can not be loaded and an {@link
+ * InheritableThreadLocal} is used instead, so the rest of toni never needs preview features.
+ */
+final class CurrentScope {
+  private static final Logger logger = LoggerFactory.getLogger(CurrentScope.class);
+  private static final ScopeBinding BINDING = load();
+
+  private CurrentScope() {}
+
+  static Scope get() {
+    return BINDING.current();
+  }
+
+  static void run(Scope scope, Runnable operation) {
+    BINDING.run(scope, operation);
+  }
+
+  private static ScopeBinding load() {
+    try {
+      return (ScopeBinding)
+          Class.forName(CurrentScope.class.getPackageName() + ".ScopedValueBinding")
+              .getDeclaredConstructor()
+              .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // a preview class file only loads on its exact JDK with --enable-preview
+      logger.debug("ScopedValue is not available, binding scopes to threads: {}", e.toString());
+      return new InheritedBinding();
+    }
+  }
+
+  /** The fallback: threads started within the operation, e.g. by a task scope, inherit it. */
+  private static final class InheritedBinding implements ScopeBinding {
+    private final InheritableThreadLocal<Scope> scope = new InheritableThreadLocal<>();
+
+    @Override
+    public Scope current() {
+      return scope.get();
+    }
+
+    @Override
+    public void run(Scope bound, Runnable operation) {
+      Scope previous = scope.get();
+      scope.set(bound);
+      try {
+        operation.run();
+      } finally {
+        if (previous == null) scope.remove();
+        else scope.set(previous);
+      }
+    }
+  }
+}
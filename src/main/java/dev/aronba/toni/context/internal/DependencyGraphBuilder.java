@@ -1,20 +1,55 @@
 package dev.aronba.toni.context.internal;
 
 import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Inject;
+import dev.aronba.toni.context.annotation.Provides;
+import dev.aronba.toni.context.core.Provider;
+import dev.aronba.toni.context.exception.InstatitationException;
+import dev.aronba.toni.context.exception.NoImplementationFoundException;
+import dev.aronba.toni.context.exception.UnsatisfiedDependencyException;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Builds the dependency graph and selects the single constructor every component is created with:
+ * the one marked {@link Inject}, or else the one with the most dependencies that are all
+ * registered. The choice is made before anything is instantiated, so components that can not be
+ * created fail before any constructor has run. The return types of {@link Provides} methods are
+ * added as components that are created by their factory method.
+ */
 public class DependencyGraphBuilder {
   private static final Logger logger = LoggerFactory.getLogger(DependencyGraphBuilder.class);
 
-  private final Map<Class<?>, List<List<Dependency>>> dependencyGraph = new HashMap<>();
+  private final Map<Class<?>, List<Dependency>> dependencyGraph = new HashMap<>();
+  private final Map<Class<?>, Executable> creators = new HashMap<>();
+  // provided classes and their interfaces, which can be injected without being a @Component
+  private final Set<Class<?>> providedTypes = new HashSet<>();
   private final Map<Class<?>, List<Class<?>>> interfaceToImpls = new HashMap<>();
 
-  public void buildGraph(Class<?>... classes) {
+  /**
+   * Adds the classes to the graph.
+   *
+   * @return the classes to create: the given ones and the types their factory methods provide
+   */
+  public Class<?>[] buildGraph(Class<?>... classes)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException {
+    Map<Class<?>, Method> factories = new LinkedHashMap<>();
+    for (Class<?> clazz : classes) {
+      if (!clazz.isInterface()) addFactoryMethods(clazz, factories, classes);
+    }
+
+    Map<Class<?>, List<Constructor<?>>> candidates = new LinkedHashMap<>();
     for (Class<?> clazz : classes) {
       if (clazz.isInterface()) {
         interfaceToImpls.putIfAbsent(clazz, new ArrayList<>());
@@ -26,60 +61,288 @@ public class DependencyGraphBuilder {
         interfaceToImpls.computeIfAbsent(iface, _ -> new ArrayList<>()).add(clazz);
       }
 
-      List<List<Dependency>> validConstructors = findValidConstructors(clazz.getConstructors());
+      List<Constructor<?>> validConstructors = findValidConstructors(clazz);
       if (validConstructors.isEmpty()) {
         logger.warn("No valid constructor found for class: {}", clazz.getName());
         continue;
       }
+      candidates.put(clazz, validConstructors);
+      // registered before any constructor is selected, so classes of one batch can see each other
+      dependencyGraph.put(clazz, List.of());
+    }
+
+    for (var entry : candidates.entrySet()) {
+      Class<?> clazz = entry.getKey();
+      Constructor<?> constructor = selectConstructor(clazz, entry.getValue());
+      logger.debug("Selected constructor {} for class: {}", constructor, clazz.getName());
+      creators.put(clazz, constructor);
+      dependencyGraph.put(clazz, dependenciesOf(constructor));
+    }
+
+    for (var entry : factories.entrySet()) {
+      Method method = entry.getValue();
+      if (!isExecutableValid(method)) {
+        throw new InstatitationException("The factory method can not be used: " + method);
+      }
+      Class<?> missing = findUnsatisfied(method);
+      boolean isStatic = Modifier.isStatic(method.getModifiers());
+      if (missing == null && !isStatic && !isRegistered(method.getDeclaringClass())) {
+        missing = method.getDeclaringClass();
+      }
+      if (missing != null) throwUnsatisfied(entry.getKey(), missing);
 
-      validConstructors.sort(Comparator.comparingInt(List::size));
-      logger.debug(
-          "Found {} valid constructors for class: {}", validConstructors.size(), clazz.getName());
-      dependencyGraph.put(clazz, validConstructors);
+      List<Dependency> dependencies = new ArrayList<>();
+      if (!isStatic) dependencies.add(Dependency.of(method.getDeclaringClass()));
+      dependencies.addAll(dependenciesOf(method));
+      creators.put(entry.getKey(), method);
+      dependencyGraph.put(entry.getKey(), dependencies);
     }
+
+    if (factories.isEmpty()) return classes;
+    Class<?>[] components = Arrays.copyOf(classes, classes.length + factories.size());
+    int i = classes.length;
+    for (Class<?> provided : factories.keySet()) components[i++] = provided;
+    return components;
   }
 
-  private List<List<Dependency>> findValidConstructors(Constructor<?>[] constructors) {
-    List<List<Dependency>> valid = new ArrayList<>();
-    for (Constructor<?> constructor : constructors) {
-      if (isConstructorValid(constructor)) {
-        List<Dependency> dependencies = new ArrayList<>();
-        for (int i = 0; i < constructor.getGenericParameterTypes().length; i++) {
-          Type type = constructor.getGenericParameterTypes()[i];
-          if (type instanceof ParameterizedType parameterizedType) {
-            dependencies.add(GenericDependency.of(parameterizedType));
-          } else {
-            dependencies.add(Dependency.of((Class<?>) type));
-          }
-        }
-        valid.add(dependencies);
+  /**
+   * Registers the types provided by the factory methods of a class before any constructor is
+   * checked, so components of the same batch can already depend on them.
+   */
+  private void addFactoryMethods(
+      Class<?> clazz, Map<Class<?>, Method> factories, Class<?>[] classes)
+      throws InstatitationException {
+    for (var entry : findFactoryMethods(clazz).entrySet()) {
+      Class<?> provided = entry.getKey();
+      if (dependencyGraph.containsKey(provided)
+          || factories.containsKey(provided)
+          || Arrays.asList(classes).contains(provided)) {
+        throw new InstatitationException(
+            provided.getName() + " is provided by " + entry.getValue() + " and registered again");
+      }
+      factories.put(provided, entry.getValue());
+      providedTypes.add(provided);
+      for (Class<?> iface : provided.getInterfaces()) {
+        interfaceToImpls.computeIfAbsent(iface, _ -> new ArrayList<>()).add(provided);
+        providedTypes.add(iface);
+      }
+      dependencyGraph.put(provided, List.of());
+    }
+  }
+
+  /** The {@link Provides} methods of a class, by the type they provide. */
+  public static Map<Class<?>, Method> findFactoryMethods(Class<?> clazz)
+      throws InstatitationException {
+    Map<Class<?>, Method> factories = new LinkedHashMap<>();
+    for (Method method : clazz.getDeclaredMethods()) {
+      if (!method.isAnnotationPresent(Provides.class)) continue;
+      if (factories.put(providedType(method), method) != null) {
+        throw new InstatitationException(
+            clazz.getName() + " provides " + providedType(method).getName() + " more than once");
+      }
+    }
+    return factories;
+  }
+
+  /**
+   * The declared return type of a factory method, or {@code T} for a {@code CompletableFuture<T>}.
+   * It has to be a class, so the instance can be bound to it and to the interfaces it implements.
+   */
+  private static Class<?> providedType(Method method) throws InstatitationException {
+    Type type = method.getGenericReturnType();
+    if (method.getReturnType().equals(CompletableFuture.class)) {
+      type = type instanceof ParameterizedType future ? future.getActualTypeArguments()[0] : null;
+    }
+    if (!(type instanceof Class<?> provided)
+        || provided.isPrimitive()
+        || provided.isArray()
+        || provided.isInterface()) {
+      throw new InstatitationException(
+          "The factory method " + method + " has to return a class or a CompletableFuture of one");
+    }
+    return provided;
+  }
+
+  /**
+   * Adds components that generated wiring code creates. They have no constructor to select, but
+   * later registrations can depend on them and on the interfaces they implement.
+   */
+  public void addGenerated(List<Class<?>> classes) {
+    for (Class<?> clazz : classes) {
+      for (Class<?> iface : clazz.getInterfaces()) {
+        interfaceToImpls.computeIfAbsent(iface, _ -> new ArrayList<>()).add(clazz);
+      }
+      dependencyGraph.put(clazz, List.of());
+    }
+  }
+
+  /**
+   * Adds a component restored from a startup snapshot with the constructor or factory method it
+   * was created with, so later registrations and snapshots see it like a component built here.
+   */
+  public void addRestored(Class<?> clazz, Executable creator) {
+    List<Dependency> dependencies = new ArrayList<>();
+    if (creator instanceof Method method) {
+      providedTypes.add(clazz);
+      providedTypes.addAll(List.of(clazz.getInterfaces()));
+      if (!Modifier.isStatic(method.getModifiers())) {
+        dependencies.add(Dependency.of(method.getDeclaringClass()));
+      }
+    }
+    dependencies.addAll(dependenciesOf(creator));
+    creators.put(clazz, creator);
+    dependencyGraph.put(clazz, dependencies);
+  }
+
+  private List<Constructor<?>> findValidConstructors(Class<?> clazz)
+      throws InstatitationException {
+    List<Constructor<?>> valid = new ArrayList<>();
+    List<Constructor<?>> marked = new ArrayList<>();
+    for (Constructor<?> constructor : clazz.getConstructors()) {
+      if (constructor.isAnnotationPresent(Inject.class)) marked.add(constructor);
+      if (isExecutableValid(constructor)) valid.add(constructor);
+    }
+    if (marked.size() > 1) {
+      throw new InstatitationException(clazz.getName() + " has more than one @Inject constructor");
+    }
+    if (marked.size() == 1) {
+      if (!valid.contains(marked.getFirst())) {
+        throw new InstatitationException("The @Inject constructor can not be used: " + marked);
       }
+      return marked;
     }
     return valid;
   }
 
-  private boolean isConstructorValid(Constructor<?> constructor) {
-    for (int i = 0; i < constructor.getParameters().length; i++) {
-      Class<?> param = constructor.getParameterTypes()[i];
+  /**
+   * The constructor with the most parameters among those whose dependencies are all registered.
+   * Two such constructors of the same length are ambiguous and have to be resolved with {@link
+   * Inject}.
+   */
+  private Constructor<?> selectConstructor(Class<?> clazz, List<Constructor<?>> candidates)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException {
+    Constructor<?> selected = null;
+    Class<?> missing = null;
+    boolean ambiguous = false;
+    for (Constructor<?> constructor : candidates) {
+      Class<?> unsatisfied = findUnsatisfied(constructor);
+      if (unsatisfied != null) {
+        if (missing == null) missing = unsatisfied;
+        continue;
+      }
+      int length = constructor.getParameterCount();
+      if (selected == null || length > selected.getParameterCount()) {
+        selected = constructor;
+        ambiguous = false;
+      } else if (length == selected.getParameterCount()) {
+        ambiguous = true;
+      }
+    }
+
+    if (selected == null) throwUnsatisfied(clazz, missing);
+    if (ambiguous) {
+      throw new InstatitationException(
+          clazz.getName() + " has several usable constructors of the same length, mark one with"
+              + " @Inject");
+    }
+    return selected;
+  }
+
+  private static void throwUnsatisfied(Class<?> clazz, Class<?> missing)
+      throws UnsatisfiedDependencyException, NoImplementationFoundException {
+    if (missing.isInterface()) {
+      throw new NoImplementationFoundException("No implementation for " + missing.getName());
+    }
+    throw new UnsatisfiedDependencyException(
+        clazz.getName() + " needs the unregistered component " + missing.getName());
+  }
+
+  /** The first dependency of a constructor or factory method that can not be satisfied, or null. */
+  private Class<?> findUnsatisfied(Executable executable) {
+    Type[] types = executable.getGenericParameterTypes();
+    for (Type type : types) {
+      if (type instanceof ParameterizedType parameterizedType) {
+        Class<?> raw = (Class<?>) parameterizedType.getRawType();
+        // an absent optional or an empty collection is a valid injection
+        if (raw.equals(Optional.class) || raw.equals(List.class) || raw.equals(Set.class)) {
+          continue;
+        }
+        Class<?> provided = (Class<?>) parameterizedType.getActualTypeArguments()[0];
+        if (!isRegistered(provided)) return provided;
+      } else if (type instanceof Class<?> cls && !cls.isArray() && !isRegistered(cls)) {
+        return cls;
+      }
+    }
+    return null;
+  }
+
+  private boolean isRegistered(Class<?> clazz) {
+    if (clazz.isInterface()) return !interfaceToImpls.getOrDefault(clazz, List.of()).isEmpty();
+    return dependencyGraph.containsKey(clazz);
+  }
+
+  private static List<Dependency> dependenciesOf(Executable executable) {
+    List<Dependency> dependencies = new ArrayList<>();
+    for (Type type : executable.getGenericParameterTypes()) {
+      if (type instanceof ParameterizedType parameterizedType) {
+        dependencies.add(GenericDependency.of(parameterizedType));
+      } else {
+        dependencies.add(Dependency.of((Class<?>) type));
+      }
+    }
+    return dependencies;
+  }
+
+  private boolean isExecutableValid(Executable executable) {
+    for (int i = 0; i < executable.getParameters().length; i++) {
+      Class<?> param = executable.getParameterTypes()[i];
+      if (param.isArray() && isInjectable(param.getComponentType())) {
+        continue;
+      }
+      if (param.equals(Supplier.class)
+          || param.equals(Provider.class)
+          || param.equals(List.class)
+          || param.equals(Set.class)) {
+        Type genericType = executable.getGenericParameterTypes()[i];
+        if (genericType instanceof ParameterizedType parameterizedType
+            && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> type
+            && isInjectable(type)) {
+          continue;
+        }
+        logger.warn("Constructor with invalid generic parameter found: {}", executable);
+        return false;
+      }
       if (param.equals(Optional.class)) {
-        Type genericType = constructor.getGenericParameterTypes()[i];
+        Type genericType = executable.getGenericParameterTypes()[i];
         if (genericType instanceof ParameterizedType parameterizedType) {
           Class<?> type = (Class<?>) parameterizedType.getActualTypeArguments()[0];
-          return type.isAnnotationPresent(Component.class);
+          return isInjectable(type);
         }
       }
-      if (!param.isAnnotationPresent(Component.class)) {
-        logger.warn("Constructor with invalid parameters found: {}", constructor);
+      if (!isInjectable(param)) {
+        logger.warn("Constructor with invalid parameters found: {}", executable);
         return false;
       }
     }
     return true;
   }
 
-  public Map<Class<?>, List<List<Dependency>>> getDependencyGraph() {
+  private boolean isInjectable(Class<?> type) {
+    return type.isAnnotationPresent(Component.class) || providedTypes.contains(type);
+  }
+
+  /** The dependencies of the selected constructor of every component. */
+  public Map<Class<?>, List<Dependency>> getDependencyGraph() {
     return dependencyGraph;
   }
 
+  /** The selected constructor, or the factory method, of every component. */
+  public Map<Class<?>, Executable> getCreators() {
+    return creators;
+  }
+
   public Map<Class<?>, List<Class<?>>> getInterfaceToImpls() {
     return interfaceToImpls;
   }
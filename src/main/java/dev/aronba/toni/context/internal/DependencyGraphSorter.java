@@ -1,20 +1,28 @@
 package dev.aronba.toni.context.internal;
 
+import dev.aronba.toni.context.core.Provider;
 import dev.aronba.toni.context.exception.CircularDependencyException;
 import dev.aronba.toni.context.exception.NoImplementationFoundException;
-import java.lang.reflect.*;
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sorts the dependency graph with Kahn's algorithm. Every class of a sort gets a dense id, looked
+ * up once per edge in a hash map while the edges are copied into compressed sparse row arrays. The
+ * ids are not kept between sorts, as a batch only reaches its own unresolved classes. The sort
+ * itself then runs in O(V+E) on int arrays, and neither it nor the cycle search recurses.
+ */
 public class DependencyGraphSorter {
   private static final Logger logger = LoggerFactory.getLogger(DependencyGraphSorter.class);
 
-  private final Map<Class<?>, List<List<Dependency>>> dependencyGraph;
+  private final Map<Class<?>, List<Dependency>> dependencyGraph;
   private final Map<Class<?>, List<Class<?>>> interfaceToImplementationsMap;
 
   public DependencyGraphSorter(
-      Map<Class<?>, List<List<Dependency>>> dependencyGraph,
+      Map<Class<?>, List<Dependency>> dependencyGraph,
       Map<Class<?>, List<Class<?>>> interfaceToImplementationsMap) {
     this.dependencyGraph = dependencyGraph;
     this.interfaceToImplementationsMap = interfaceToImplementationsMap;
@@ -23,71 +31,242 @@ public class DependencyGraphSorter {
   public List<Class<?>> sortDependencyGraph()
       throws CircularDependencyException, NoImplementationFoundException {
     List<Class<?>> sorted = new ArrayList<>();
-    Set<Class<?>> visited = new HashSet<>();
-    Set<Class<?>> visiting = new HashSet<>();
-
-    for (Class<?> clazz : dependencyGraph.keySet()) {
-      visit(clazz, sorted, visited, visiting);
+    for (List<Class<?>> level : sortIntoLevels()) {
+      sorted.addAll(level);
     }
-
     return sorted;
   }
 
-  private void visit(
-      Class<?> clazz, List<Class<?>> sorted, Set<Class<?>> visited, Set<Class<?>> visiting)
+  /**
+   * Groups the classes into levels. Every class in a level only depends on classes of earlier
+   * levels, so all classes within one level can be instantiated concurrently.
+   */
+  public List<List<Class<?>>> sortIntoLevels()
       throws CircularDependencyException, NoImplementationFoundException {
+    return sortIntoLevels(dependencyGraph.keySet(), _ -> false);
+  }
 
-    if (visited.contains(clazz)) return;
-    if (visiting.contains(clazz)) throw new CircularDependencyException();
-
-    visiting.add(clazz);
-    for (List<Dependency> constructorDeps : dependencyGraph.getOrDefault(clazz, List.of())) {
-      for (Dependency d : constructorDeps) {
-        Class<?> depType = d.getClazz();
-        if (depType.equals(Optional.class)) {
-          handleOptional(d, sorted, visited, visiting);
-        } else if (depType.isInterface()) {
-          handleInterface(depType, sorted, visited, visiting);
-        } else {
-          visit(depType, sorted, visited, visiting);
-        }
+  /**
+   * Sorts only the given classes and the dependencies they reach that are not resolved yet.
+   * Resolved classes are treated as already created, so registering a batch of classes costs time
+   * proportional to the batch instead of to the whole graph.
+   */
+  public List<List<Class<?>>> sortIntoLevels(
+      Collection<Class<?>> classes, Predicate<Class<?>> resolved)
+      throws CircularDependencyException, NoImplementationFoundException {
+    IndexedGraph graph =
+        IndexedGraph.of(dependencyGraph, interfaceToImplementationsMap, classes, resolved);
+    int nodeCount = graph.nodes.length;
+
+    // remaining[u] counts the not yet sorted dependencies of u, dependents is the reverse CSR
+    int[] remaining = new int[nodeCount];
+    int[] dependentOffsets = new int[nodeCount + 1];
+    for (int u = 0; u < nodeCount; u++) {
+      remaining[u] = graph.offsets[u + 1] - graph.offsets[u];
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        dependentOffsets[graph.targets[e] + 1]++;
+      }
+    }
+    for (int u = 0; u < nodeCount; u++) dependentOffsets[u + 1] += dependentOffsets[u];
+    int[] dependents = new int[graph.targets.length];
+    int[] fill = Arrays.copyOf(dependentOffsets, nodeCount);
+    for (int u = 0; u < nodeCount; u++) {
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        dependents[fill[graph.targets[e]]++] = u;
       }
     }
 
-    visiting.remove(clazz);
-    visited.add(clazz);
-    sorted.add(clazz);
-  }
+    int[] queue = new int[nodeCount];
+    int tail = 0;
+    for (int u = 0; u < nodeCount; u++) {
+      if (remaining[u] == 0) queue[tail++] = u;
+    }
 
-  private void handleOptional(
-      Dependency dep, List<Class<?>> sorted, Set<Class<?>> visited, Set<Class<?>> visiting)
-      throws NoImplementationFoundException {
-    if (dep instanceof GenericDependency gd) {
-      Type inner = gd.getParameterizedType().getActualTypeArguments()[0];
-      if (inner instanceof Class<?> clazz) {
-        visit(clazz, sorted, visited, visiting);
+    List<List<Class<?>>> levels = new ArrayList<>();
+    int head = 0;
+    while (head < tail) {
+      int levelEnd = tail;
+      List<Class<?>> level = new ArrayList<>(levelEnd - head);
+      for (; head < levelEnd; head++) {
+        int v = queue[head];
+        level.add(graph.nodes[v]);
+        for (int e = dependentOffsets[v]; e < dependentOffsets[v + 1]; e++) {
+          if (--remaining[dependents[e]] == 0) queue[tail++] = dependents[e];
+        }
       }
+      levels.add(level);
+    }
+
+    if (tail < nodeCount) {
+      throw new CircularDependencyException(
+          "Circular dependency: " + describeCycle(graph, remaining));
     }
+    logger.debug("Sorted {} classes into {} levels", nodeCount, levels.size());
+    return levels;
   }
 
-  private void handleInterface(
-      Class<?> iface, List<Class<?>> sorted, Set<Class<?>> visited, Set<Class<?>> visiting)
-      throws NoImplementationFoundException {
-    List<Class<?>> impls = interfaceToImplementationsMap.getOrDefault(iface, List.of());
-    if (impls.isEmpty()) {
-      throw new NoImplementationFoundException("No implementation for " + iface.getName());
+  /**
+   * Every unsorted class still waits for at least one unsorted dependency, so following those
+   * edges must eventually revisit a class. The revisited part of the walk is the cycle.
+   */
+  private static String describeCycle(IndexedGraph graph, int[] remaining) {
+    int[] positionInPath = new int[graph.nodes.length];
+    Arrays.fill(positionInPath, -1);
+    List<Integer> path = new ArrayList<>();
+
+    int current = 0;
+    while (remaining[current] == 0) current++;
+    while (positionInPath[current] < 0) {
+      positionInPath[current] = path.size();
+      path.add(current);
+      int next = -1;
+      for (int e = graph.offsets[current]; e < graph.offsets[current + 1] && next < 0; e++) {
+        if (remaining[graph.targets[e]] > 0) next = graph.targets[e];
+      }
+      current = next;
     }
 
-    for (Class<?> impl : impls) {
-      visit(impl, sorted, visited, visiting);
+    StringJoiner cycle = new StringJoiner(" -> ");
+    for (int i = positionInPath[current]; i < path.size(); i++) {
+      cycle.add(graph.nodes[path.get(i)].getName());
     }
+    cycle.add(graph.nodes[current].getName());
+    return cycle.toString();
   }
 
-  public Map<Class<?>, List<List<Dependency>>> getDependencyGraph() {
+  public Map<Class<?>, List<Dependency>> getDependencyGraph() {
     return dependencyGraph;
   }
 
   public Map<Class<?>, List<Class<?>>> getInterfaceToImplementationsMap() {
     return interfaceToImplementationsMap;
   }
+
+  /**
+   * The dependency graph with dense ids: the dependencies of node {@code u} are {@code
+   * targets[offsets[u]]} up to {@code targets[offsets[u + 1] - 1]}. An interface dependency is an
+   * edge to every implementation, an {@code Optional<T>} dependency an edge to {@code T}.
+   */
+  private record IndexedGraph(Class<?>[] nodes, int[] offsets, int[] targets) {
+
+    static IndexedGraph of(
+        Map<Class<?>, List<Dependency>> dependencyGraph,
+        Map<Class<?>, List<Class<?>>> interfaceToImplementationsMap,
+        Collection<Class<?>> roots,
+        Predicate<Class<?>> resolved)
+        throws NoImplementationFoundException {
+      Map<Class<?>, Integer> ids = HashMap.newHashMap(roots.size());
+      List<Class<?>> nodes = new ArrayList<>(roots.size());
+      for (Class<?> root : roots) {
+        if (ids.putIfAbsent(root, nodes.size()) == null) nodes.add(root);
+      }
+
+      // nodes reached as a dependency are appended and get their edges in the same loop
+      Edges edges = new Edges(nodes.size());
+      for (int u = 0; u < nodes.size(); u++) {
+        edges.startNode(u);
+        Class<?> node = nodes.get(u);
+        if (node.isInterface()) {
+          edges.addAll(interfaceToImplementationsMap.get(node), ids, nodes, resolved);
+          continue;
+        }
+        for (Dependency d : dependencyGraph.getOrDefault(node, List.of())) {
+          edges.addAll(targetsOf(d, interfaceToImplementationsMap), ids, nodes, resolved);
+        }
+      }
+      return new IndexedGraph(
+          nodes.toArray(new Class<?>[0]), edges.offsets(nodes.size()), edges.targets());
+    }
+
+    private static List<Class<?>> targetsOf(
+        Dependency dependency, Map<Class<?>, List<Class<?>>> interfaceToImplementationsMap)
+        throws NoImplementationFoundException {
+      Class<?> depType = dependency.getClazz();
+      // the provided type must be planned first, even though it is only created on demand
+      if (depType.equals(Optional.class)
+          || depType.equals(Supplier.class)
+          || depType.equals(Provider.class)) {
+        if (dependency instanceof GenericDependency gd
+            && gd.getParameterizedType().getActualTypeArguments()[0] instanceof Class<?> inner) {
+          return List.of(inner);
+        }
+        return List.of();
+      }
+      // every implementation is injected, which may also be none at all
+      if (depType.isArray()) {
+        return allOf(depType.getComponentType(), interfaceToImplementationsMap);
+      }
+      if (depType.equals(List.class) || depType.equals(Set.class)) {
+        if (dependency instanceof GenericDependency gd
+            && gd.getParameterizedType().getActualTypeArguments()[0] instanceof Class<?> inner) {
+          return allOf(inner, interfaceToImplementationsMap);
+        }
+        return List.of();
+      }
+      if (depType.isInterface()) {
+        List<Class<?>> impls = interfaceToImplementationsMap.getOrDefault(depType, List.of());
+        if (impls.isEmpty()) {
+          throw new NoImplementationFoundException("No implementation for " + depType.getName());
+        }
+        return impls;
+      }
+      return List.of(depType);
+    }
+
+    private static List<Class<?>> allOf(
+        Class<?> type, Map<Class<?>, List<Class<?>>> interfaceToImplementationsMap) {
+      return type.isInterface()
+          ? interfaceToImplementationsMap.getOrDefault(type, List.of())
+          : List.of(type);
+    }
+  }
+
+  /** Growable CSR arrays, filled node by node in id order. */
+  private static final class Edges {
+    private int[] offsets;
+    private int[] targets;
+    private int count = 0;
+
+    Edges(int expectedNodes) {
+      offsets = new int[expectedNodes + 1];
+      targets = new int[Math.max(16, expectedNodes * 2)];
+    }
+
+    void startNode(int node) {
+      if (node + 1 >= offsets.length) offsets = Arrays.copyOf(offsets, (node + 1) * 2);
+      offsets[node] = count;
+    }
+
+    /**
+     * Adds an edge to every unresolved target, giving classes seen for the first time the next
+     * free id.
+     */
+    void addAll(
+        List<Class<?>> targets,
+        Map<Class<?>, Integer> ids,
+        List<Class<?>> nodes,
+        Predicate<Class<?>> resolved) {
+      if (targets == null) return;
+      for (Class<?> target : targets) {
+        if (resolved.test(target)) continue;
+        Integer id = ids.putIfAbsent(target, nodes.size());
+        if (id == null) {
+          id = nodes.size();
+          nodes.add(target);
+        }
+        if (count == this.targets.length) this.targets = Arrays.copyOf(this.targets, count * 2);
+        this.targets[count++] = id;
+      }
+    }
+
+    int[] offsets(int nodeCount) {
+      int[] result = Arrays.copyOf(offsets, nodeCount + 1);
+      result[nodeCount] = count;
+      return result;
+    }
+
+    int[] targets() {
+      return Arrays.copyOf(targets, count);
+    }
+  }
 }
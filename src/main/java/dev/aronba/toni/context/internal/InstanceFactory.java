@@ -1,14 +1,24 @@
 package dev.aronba.toni.context.internal;
 
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Order;
 import dev.aronba.toni.context.annotation.PostProcessor;
 import dev.aronba.toni.context.annotation.Use;
-import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.Lifetime;
+import dev.aronba.toni.context.core.Provider;
 import dev.aronba.toni.context.exception.InstatitationException;
 import dev.aronba.toni.context.exception.NoImplementationFoundException;
 import dev.aronba.toni.context.exception.UnsatisfiedDependencyException;
 import dev.aronba.toni.context.processor.ComponentPostProcessor;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,106 +26,399 @@ public class InstanceFactory {
   private static final Logger logger = LoggerFactory.getLogger(InstanceFactory.class);
 
   private final Map<Class<?>, Object> instances;
-  private final Map<Class<?>, List<List<Dependency>>> dependencyGraph;
-  private final Map<Class<?>, List<Class<?>>> interfaceToImplementationsMap;
-  private final List<ComponentPostProcessor> postProcessors;
-  private final ApplicationContext context;
+  private final PostProcessorRegistry postProcessors;
+  // the tables below are only read while registering and replaced by empty ones in freeze()
+  private volatile Map<Class<?>, List<Dependency>> dependencyGraph;
+  private volatile Map<Class<?>, List<Class<?>>> interfaceToImplementationsMap;
+  private volatile Map<Class<?>, ResolutionPlan> plans = new ConcurrentHashMap<>();
+  private volatile Map<Class<?>, LazySingleton> lazySingletons = new ConcurrentHashMap<>();
+  private volatile Map<Class<?>, Integer> scopeSlots = new ConcurrentHashMap<>();
+  // results of async factory methods that no component has needed yet
+  private final Map<Class<?>, CompletableFuture<?>> pending = new ConcurrentHashMap<>();
+  private final AtomicInteger scopedComponents = new AtomicInteger();
+  private volatile BiConsumer<Class<?>, Object> lazyInitializer = (type, instance) -> {};
+  private volatile BiConsumer<Class<?>, Object> runtimeInitializer = (type, instance) -> {};
 
   public InstanceFactory(
       Map<Class<?>, Object> instances,
-      Map<Class<?>, List<List<Dependency>>> dependencyGraph,
+      Map<Class<?>, List<Dependency>> dependencyGraph,
       Map<Class<?>, List<Class<?>>> interfaceToImplementationsMap,
-      List<ComponentPostProcessor> postProcessors,
-      ApplicationContext context) {
+      PostProcessorRegistry postProcessors) {
     this.instances = instances;
     this.dependencyGraph = dependencyGraph;
     this.interfaceToImplementationsMap = interfaceToImplementationsMap;
     this.postProcessors = postProcessors;
-    this.context = context;
   }
 
   public Object createNewInstance(Class<?> clazz) {
-    try {
-      return clazz.cast(instantiateClass(clazz));
-    } catch (InstatitationException
-        | NoImplementationFoundException
-        | UnsatisfiedDependencyException e) {
-      return null;
-    }
+    ResolutionPlan plan = plans.get(clazz);
+    return plan == null ? null : plan.newInstance(null);
+  }
+
+  public ResolutionPlan getPlan(Class<?> clazz) {
+    return plans.get(clazz);
+  }
+
+  public Set<Class<?>> getPlannedClasses() {
+    return Collections.unmodifiableSet(plans.keySet());
+  }
+
+  public LazySingleton getLazySingleton(Class<?> clazz) {
+    return lazySingletons.get(clazz);
+  }
+
+  /** The slot of a {@code SCOPED} component within every {@link Scope}. */
+  public int getScopeSlot(Class<?> clazz) {
+    return scopeSlots.get(clazz);
+  }
+
+  /** Opens a scope with room for all {@code SCOPED} components registered so far. */
+  public Scope newScope() {
+    return new Scope(scopedComponents.get());
+  }
+
+  /**
+   * Drops the lookup tables of the plans and the reflected parameters within them. The plans stay
+   * reachable through the bindings and keep creating prototypes, lazy and scoped components, but
+   * no further class can be planned.
+   */
+  public void freeze() {
+    for (ResolutionPlan plan : plans.values()) plan.releaseMetadata();
+    plans = Map.of();
+    lazySingletons = Map.of();
+    scopeSlots = Map.of();
+    dependencyGraph = Map.of();
+    interfaceToImplementationsMap = Map.of();
+  }
+
+  /** Called with every {@code LAZY} component right after it was created. */
+  public void setLazyInitializer(BiConsumer<Class<?>, Object> lazyInitializer) {
+    this.lazyInitializer = lazyInitializer;
+  }
+
+  /**
+   * Called with every new {@code PROTOTYPE} and {@code SCOPED} instance, whether requested or
+   * injected.
+   */
+  public void setRuntimeInitializer(BiConsumer<Class<?>, Object> runtimeInitializer) {
+    this.runtimeInitializer = runtimeInitializer;
   }
 
-  public Object instantiateClass(Class<?> clazz)
+  /**
+   * Plans a {@code LAZY} component that will be created with exactly the given constructor, once
+   * the instance is needed.
+   */
+  public LazySingleton prepareLazy(Class<?> clazz, Executable constructor)
       throws InstatitationException,
           UnsatisfiedDependencyException,
           NoImplementationFoundException {
+    ResolutionPlan plan = createPlan(clazz, constructor);
+    LazySingleton singleton = new LazySingleton(plan, instance -> onLazyCreated(clazz, instance));
+    lazySingletons.put(clazz, singleton);
+    plans.put(clazz, plan);
+    logger.debug("Prepared lazy instance of {}", clazz.getName());
+    return singleton;
+  }
+
+  /**
+   * Plans a {@code SCOPED} component and assigns its slot. Instances are only created within a
+   * {@link Scope}, with exactly the given constructor.
+   */
+  public void prepareScoped(Class<?> clazz, Executable constructor)
+      throws InstatitationException,
+          UnsatisfiedDependencyException,
+          NoImplementationFoundException {
+    ResolutionPlan plan = createPlan(clazz, constructor);
+    scopeSlots.put(clazz, scopedComponents.getAndIncrement());
+    plans.put(clazz, plan);
+    logger.debug("Prepared scoped instance of {}", clazz.getName());
+  }
+
+  private void onLazyCreated(Class<?> clazz, Object instance) {
+    instances.put(clazz, instance);
+    registerPostProcessorIfApplicable(clazz, instance);
+    logger.debug("Created lazy instance of {}", clazz.getName());
+    lazyInitializer.accept(clazz, instance);
+  }
 
-    for (Constructor<?> constructor : clazz.getConstructors()) {
+  /**
+   * Instantiates the class with exactly the given constructor or factory method. The result of an
+   * async factory method is only awaited once a dependent needs it, or by {@link #awaitAsync}. A
+   * prototype with scoped dependencies is only planned, its instances are created within a scope.
+   */
+  public void instantiateClass(Class<?> clazz, Executable constructor)
+      throws InstatitationException,
+          UnsatisfiedDependencyException,
+          NoImplementationFoundException {
+    ResolutionPlan plan = createPlan(clazz, constructor);
+    if (plan.needsScope()) {
+      // a prototype with scoped dependencies can only be created within a scope
+      plans.put(clazz, plan);
+      return;
+    }
+    Object instance;
+    try {
+      instance = plan.instantiate(null);
+    } catch (InvocationTargetException e) {
+      throw new InstatitationException(e);
+    }
+    if (instance == null) {
+      throw new InstatitationException(
+          "The factory method of " + clazz.getName() + " returned null");
+    }
+    plans.put(clazz, plan);
+    if (plan.isAsync()) {
+      pending.put(clazz, (CompletableFuture<?>) instance);
+      logger.debug("Started async instance of {}", clazz.getName());
+      return;
+    }
+    instances.put(clazz, instance);
+    registerPostProcessorIfApplicable(clazz, instance);
+    logger.debug("Created instance of {}", clazz.getName());
+  }
+
+  /**
+   * Adds a {@code SINGELTON}, {@code PROTOTYPE} or {@code LAZY} component created by generated
+   * wiring code. Singletons are created right away, the returned plan creates prototypes and lazy
+   * components from the factory on demand.
+   */
+  public ResolutionPlan addGenerated(Class<?> clazz, Lifetime lifetime, Supplier<?> factory) {
+    ResolutionPlan plan =
+        new ResolutionPlan(
+            clazz,
+            ConstructorInvoker.of(factory),
+            new ArgumentResolver[0],
+            (type, instance) -> runtimeInitializer.accept(type, instance));
+    if (lifetime == Lifetime.SINGELTON) {
+      Object instance = factory.get();
+      instances.put(clazz, instance);
+      registerPostProcessorIfApplicable(clazz, instance);
+    } else if (lifetime == Lifetime.LAZY) {
+      lazySingletons.put(
+          clazz, new LazySingleton(plan, instance -> onLazyCreated(clazz, instance)));
+    }
+    plans.put(clazz, plan);
+    logger.debug("Added generated {} component {}", lifetime, clazz.getName());
+    return plan;
+  }
+
+  /**
+   * Waits for the results of all async factory methods that were started and not needed yet, so
+   * every singleton exists once a registration is done. A failure is only rethrown once every
+   * other factory has finished as well, so none keeps running after the registration failed.
+   */
+  public void awaitAsync() throws InstatitationException {
+    InstatitationException failure = null;
+    for (Class<?> clazz : pending.keySet()) {
       try {
-        List<Object> args = resolveConstructorDependencies(constructor);
-        Object instance = constructor.newInstance(args.toArray());
-        instances.put(clazz, instance);
-        registerPostProcessorIfApplicable(clazz, instance);
-        logger.debug("Created instance of {}", clazz.getName());
-        return instance;
-      } catch (InvocationTargetException
-          | InstantiationException
-          | IllegalAccessException
-          | UnsatisfiedDependencyException e) {
-        logger.warn("Constructor failed: {}", constructor);
-        // Try next constructor
+        awaitAsync(clazz);
+      } catch (InstatitationException e) {
+        if (failure == null) failure = e;
+        else failure.addSuppressed(e);
       }
     }
-    logger.error("All constructors failed for class: {}", clazz.getName());
-    throw new InstatitationException("Could not instantiate: " + clazz.getName());
+    if (failure != null) throw failure;
   }
 
-  private List<Object> resolveConstructorDependencies(Constructor<?> constructor)
-      throws UnsatisfiedDependencyException, NoImplementationFoundException {
+  private Object awaitAsync(Class<?> clazz) throws InstatitationException {
+    CompletableFuture<?> future = pending.get(clazz);
+    if (future == null) return instances.get(clazz);
+    Object instance;
+    try {
+      instance = future.join();
+    } catch (CompletionException | CancellationException e) {
+      pending.remove(clazz);
+      Throwable cause = e.getCause() == null ? e : e.getCause();
+      throw new InstatitationException(
+          "The factory method of " + clazz.getName() + " failed: " + cause, cause);
+    }
+    if (instance == null) {
+      pending.remove(clazz);
+      throw new InstatitationException(
+          "The factory method of " + clazz.getName() + " returned null");
+    }
+    // racing dependents all publish the same instance
+    if (instances.putIfAbsent(clazz, instance) == null) {
+      registerPostProcessorIfApplicable(clazz, instance);
+      logger.debug("Created async instance of {}", clazz.getName());
+    }
+    pending.remove(clazz);
+    return instance;
+  }
 
-    List<Object> resolved = new ArrayList<>();
+  private ResolutionPlan createPlan(Class<?> clazz, Executable constructor)
+      throws InstatitationException,
+          UnsatisfiedDependencyException,
+          NoImplementationFoundException {
+    try {
+      return createPlan(
+          clazz,
+          constructor instanceof Method method
+              ? ConstructorInvoker.of(method)
+              : ConstructorInvoker.of((Constructor<?>) constructor));
+    } catch (IllegalAccessException e) {
+      throw new InstatitationException(e);
+    }
+  }
 
-    for (int i = 0; i < constructor.getGenericParameterTypes().length; i++) {
-      Type type = constructor.getGenericParameterTypes()[i];
-      Parameter parameter = constructor.getParameters()[i];
-      Object dependency = resolveType(type, parameter);
-      if (dependency == null) {
+  private ResolutionPlan createPlan(Class<?> clazz, ConstructorInvoker invoker)
+      throws UnsatisfiedDependencyException,
+          NoImplementationFoundException,
+          InstatitationException {
+
+    // a factory method that is not static is called on the component declaring it
+    Class<?> receiver = invoker.getReceiverType();
+    int offset = receiver == null ? 0 : 1;
+    ArgumentResolver[] arguments = new ArgumentResolver[offset + invoker.getParameterCount()];
+    if (receiver != null) {
+      arguments[0] = planComponent(receiver);
+      if (arguments[0] == null) {
+        throw new UnsatisfiedDependencyException("Could not resolve: " + receiver.getName());
+      }
+    }
+
+    for (int i = 0; i < invoker.getParameterCount(); i++) {
+      Type type = invoker.getGenericParameterType(i);
+      ArgumentResolver argument = planType(type, invoker.getParameter(i));
+      if (argument == null) {
         throw new UnsatisfiedDependencyException("Could not resolve: " + type.getTypeName());
       }
-      resolved.add(dependency);
+      arguments[offset + i] = argument;
     }
 
-    return resolved;
+    ResolutionPlan plan =
+        new ResolutionPlan(
+            clazz,
+            invoker,
+            arguments,
+            (type, instance) -> runtimeInitializer.accept(type, instance));
+    Lifetime lifetime = lifetimeOf(clazz);
+    if (plan.needsScope() && lifetime != Lifetime.PROTOTYPE && lifetime != Lifetime.SCOPED) {
+      throw new UnsatisfiedDependencyException(
+          clazz.getName() + " outlives the scoped components it depends on");
+    }
+    return plan;
   }
 
-  private Object resolveType(Type type, Parameter parameter) throws NoImplementationFoundException {
+  private ArgumentResolver planType(Type type, Parameter parameter)
+      throws NoImplementationFoundException, InstatitationException {
 
     if (type instanceof ParameterizedType paramType) {
       Class<?> raw = (Class<?>) paramType.getRawType();
       if (raw.equals(Optional.class)) {
         Type inner = paramType.getActualTypeArguments()[0];
         if (inner instanceof Class<?> innerClass) {
-          Object dep = resolveNonGenericType(innerClass, parameter);
-          return Optional.ofNullable(dep);
+          ArgumentResolver dep = planNonGenericType(innerClass, parameter);
+          if (dep == null) return new ArgumentResolver.Constant(Optional.empty());
+          if (dep instanceof ArgumentResolver.Constant(Object value)) {
+            return new ArgumentResolver.Constant(Optional.of(value));
+          }
+          return new ArgumentResolver.Present(dep);
+        }
+      }
+      if (raw.equals(List.class) || raw.equals(Set.class)) {
+        Type element = paramType.getActualTypeArguments()[0];
+        if (element instanceof Class<?> elementClass) return planAll(raw, elementClass);
+      }
+      if (raw.equals(Supplier.class) || raw.equals(Provider.class)) {
+        Type provided = paramType.getActualTypeArguments()[0];
+        if (provided instanceof Class<?> providedClass) {
+          ArgumentResolver dep = planNonGenericType(providedClass, parameter);
+          if (dep == null) return null;
+          // resolved on every get(), so a provider of a scoped component is not scoped itself
+          BoundProvider<?> provider = new BoundProvider<>(providedClass, dep, null);
+          if (!dep.needsScope()) return new ArgumentResolver.Constant(provider);
+          return new ArgumentResolver.ScopedProvider(provider);
         }
       }
       // Handle more generic types here if needed
       return null;
+    } else if (type instanceof Class<?> cls && cls.isArray()) {
+      return planAll(cls, cls.getComponentType());
     } else if (type instanceof Class<?> cls) {
-      return resolveNonGenericType(cls, parameter);
+      return planNonGenericType(cls, parameter);
     }
     return null;
   }
 
-  private Object resolveNonGenericType(Class<?> cls, Parameter parameter)
-      throws NoImplementationFoundException {
+  private ArgumentResolver planNonGenericType(Class<?> cls, Parameter parameter)
+      throws NoImplementationFoundException, InstatitationException {
     if (cls.isInterface()) {
       List<Class<?>> impls = interfaceToImplementationsMap.getOrDefault(cls, List.of());
       if (impls.isEmpty()) throw new NoImplementationFoundException("No impl for: " + cls);
       Class<?> selected = selectImplementation(cls, impls, parameter);
-      return context.get(selected);
+      return planComponent(selected);
     } else {
-      return context.get(cls);
+      return planComponent(cls);
+    }
+  }
+
+  /**
+   * Plans the injection of every implementation of the element type, ordered by {@link Order}. If
+   * all of them are constant, the collection is built once here.
+   */
+  private ArgumentResolver planAll(Class<?> container, Class<?> elementType)
+      throws InstatitationException {
+    List<Class<?>> candidates =
+        new ArrayList<>(
+            elementType.isInterface()
+                ? interfaceToImplementationsMap.getOrDefault(elementType, List.of())
+                : List.of(elementType));
+    candidates.sort(Comparator.comparingInt(InstanceFactory::orderOf));
+
+    ArgumentResolver[] elements = new ArgumentResolver[candidates.size()];
+    boolean constant = !container.isArray();
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = planComponent(candidates.get(i));
+      if (elements[i] == null) return null;
+      constant &= elements[i] instanceof ArgumentResolver.Constant;
+    }
+    if (!constant) return new ArgumentResolver.All(container, elementType, elements);
+
+    Object[] values = (Object[]) Array.newInstance(elementType, elements.length);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = ((ArgumentResolver.Constant) elements[i]).value();
+    }
+    return new ArgumentResolver.Constant(ArgumentResolver.All.collect(container, values));
+  }
+
+  private static int orderOf(Class<?> clazz) {
+    Order order = clazz.getAnnotation(Order.class);
+    return order == null ? Integer.MAX_VALUE : order.value();
+  }
+
+  private static Lifetime lifetimeOf(Class<?> clazz) {
+    Component component = clazz.getAnnotation(Component.class);
+    return component == null ? Lifetime.SINGELTON : component.value();
+  }
+
+  /**
+   * Plans a dependency on a component. Types provided by a factory method are not annotated and
+   * always singletons.
+   */
+  private ArgumentResolver planComponent(Class<?> cls) throws InstatitationException {
+    Component component = cls.getAnnotation(Component.class);
+    if (component == null) {
+      ResolutionPlan plan = plans.get(cls);
+      if (plan == null || !plan.isProvided()) return null;
+      Object instance = awaitAsync(cls);
+      return instance == null ? null : new ArgumentResolver.Constant(instance);
+    }
+    if (component.value() == Lifetime.SCOPED) {
+      ResolutionPlan plan = plans.get(cls);
+      Integer slot = scopeSlots.get(cls);
+      return plan == null || slot == null ? null : new ArgumentResolver.Scoped(slot, plan);
+    }
+    if (component.value() == Lifetime.PROTOTYPE) {
+      ResolutionPlan plan = plans.get(cls);
+      return plan == null ? null : new ArgumentResolver.Prototype(plan);
+    }
+    if (component.value() == Lifetime.LAZY) {
+      LazySingleton singleton = lazySingletons.get(cls);
+      return singleton == null ? null : new ArgumentResolver.Lazy(singleton);
     }
+    Object instance = instances.get(cls);
+    return instance == null ? null : new ArgumentResolver.Constant(instance);
   }
 
   private Class<?> selectImplementation(Class<?> iface, List<Class<?>> impls, Parameter parameter) {
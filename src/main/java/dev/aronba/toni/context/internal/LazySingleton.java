@@ -0,0 +1,62 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.exception.InstatitationException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Holder of a {@code LAZY} component. Once created, reading the instance is a single volatile read.
+ * Creation runs under a lock, so exactly one instance exists even when many threads race for it; a
+ * {@link ReentrantLock} is used instead of {@code synchronized} to not pin virtual threads while a
+ * slow constructor runs. The instance is only published once it is post-processed; requesting it
+ * again from its own constructor or post-processors fails instead of creating a second one.
+ */
+public final class LazySingleton {
+  private final ResolutionPlan plan;
+  private final Consumer<Object> onCreate;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile Object instance;
+  // only accessed while holding the lock, so only true for the creating thread itself
+  private boolean creating = false;
+
+  LazySingleton(ResolutionPlan plan, Consumer<Object> onCreate) {
+    this.plan = plan;
+    this.onCreate = onCreate;
+  }
+
+  public Object get() throws InvocationTargetException {
+    Object current = instance;
+    if (current != null) return current;
+
+    lock.lock();
+    try {
+      current = instance;
+      if (current == null) {
+        if (creating) {
+          throw new InstatitationException(
+              plan.getType().getName() + " was requested again while it is being created");
+        }
+        creating = true;
+        try {
+          current = plan.instantiate(null);
+          onCreate.accept(current);
+          instance = current;
+        } finally {
+          creating = false;
+        }
+      }
+      return current;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public Class<?> getType() {
+    return plan.getType();
+  }
+
+  public boolean isCreated() {
+    return instance != null;
+  }
+}
@@ -0,0 +1,43 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.processor.ComponentPostProcessor;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * All registered post-processors, indexed by the component types they support. The processors of
+ * a type are looked up once and then reused for every instance of it, including every prototype.
+ */
+public final class PostProcessorRegistry {
+  private static final ComponentPostProcessor[] NONE = new ComponentPostProcessor[0];
+
+  private final List<ComponentPostProcessor> processors = new CopyOnWriteArrayList<>();
+  // replaced as a whole, so a lookup racing with add() can not cache a stale entry in the new map
+  private volatile Map<Class<?>, ComponentPostProcessor[]> byType = new ConcurrentHashMap<>();
+
+  public void add(ComponentPostProcessor processor) {
+    processors.add(processor);
+    byType = new ConcurrentHashMap<>();
+  }
+
+  /** The processors supporting the given type, in registration order. */
+  public ComponentPostProcessor[] forType(Class<?> type) {
+    return byType.computeIfAbsent(type, this::findProcessors);
+  }
+
+  public List<ComponentPostProcessor> getAll() {
+    return List.copyOf(processors);
+  }
+
+  public int size() {
+    return processors.size();
+  }
+
+  private ComponentPostProcessor[] findProcessors(Class<?> type) {
+    ComponentPostProcessor[] matching =
+        processors.stream().filter(p -> p.supports(type)).toArray(ComponentPostProcessor[]::new);
+    return matching.length == 0 ? NONE : matching;
+  }
+}
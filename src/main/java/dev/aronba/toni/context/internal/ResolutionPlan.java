@@ -0,0 +1,105 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.exception.InstatitationException;
+import dev.aronba.toni.context.jfr.PrototypeCreationEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.BiConsumer;
+
+/**
+ * The immutable recipe to create one component: the chosen constructor and an exact binding for
+ * every argument. Running a plan performs no lookups and no constructor search, which keeps the
+ * creation of (nested) prototypes cheap.
+ */
+public final class ResolutionPlan {
+  private final Class<?> type;
+  // only replaced by an equivalent invoker without metadata, see releaseMetadata()
+  private ConstructorInvoker invoker;
+  private final ArgumentResolver[] arguments;
+  private final BiConsumer<Class<?>, Object> runtimeInitializer;
+  private final boolean needsScope;
+
+  ResolutionPlan(
+      Class<?> type,
+      ConstructorInvoker invoker,
+      ArgumentResolver[] arguments,
+      BiConsumer<Class<?>, Object> runtimeInitializer) {
+    this.type = type;
+    this.invoker = invoker;
+    this.arguments = arguments;
+    this.runtimeInitializer = runtimeInitializer;
+    boolean scoped = false;
+    for (ArgumentResolver argument : arguments) scoped |= argument.needsScope();
+    this.needsScope = scoped;
+  }
+
+  Object instantiate(Scope scope) throws InvocationTargetException {
+    Object[] args = new Object[arguments.length];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = arguments[i].resolve(scope);
+    }
+    return invoker.newInstance(args);
+  }
+
+  Object instantiatePrototype(Scope scope) throws InvocationTargetException {
+    PrototypeCreationEvent event = new PrototypeCreationEvent();
+    event.begin();
+    Object instance = instantiate(scope);
+    event.component = type;
+    event.commit();
+    runtimeInitializer.accept(type, instance);
+    return instance;
+  }
+
+  Object instantiateScoped(Scope scope) throws InvocationTargetException {
+    Object instance = instantiate(scope);
+    runtimeInitializer.accept(type, instance);
+    return instance;
+  }
+
+  /**
+   * Creates a new prototype instance.
+   *
+   * @param scope the scope to take scoped dependencies from, or {@code null} outside of any scope
+   * @throws InstatitationException if the constructor failed
+   */
+  public Object newInstance(Scope scope) {
+    try {
+      return instantiatePrototype(scope);
+    } catch (InvocationTargetException e) {
+      throw new InstatitationException("Could not create " + type.getName(), e.getCause());
+    }
+  }
+
+  /** Drops the reflected parameters, the plan can still create instances but not be inspected. */
+  void releaseMetadata() {
+    invoker = invoker.withoutMetadata();
+  }
+
+  /** Whether a scoped component is among the (nested) dependencies. */
+  public boolean needsScope() {
+    return needsScope;
+  }
+
+  public Class<?> getType() {
+    return type;
+  }
+
+  /** Whether the instances come from generated wiring code instead of a reflected constructor. */
+  public boolean isGenerated() {
+    return invoker.isGenerated();
+  }
+
+  /** Whether the instances come from a {@code @Provides} method. */
+  public boolean isProvided() {
+    return invoker.isFactoryMethod();
+  }
+
+  /** Whether the factory method returns a {@code CompletableFuture} of the instance. */
+  public boolean isAsync() {
+    return invoker.isAsync();
+  }
+
+  public Class<?>[] getConstructorParameterTypes() {
+    return invoker.getParameterTypes();
+  }
+}
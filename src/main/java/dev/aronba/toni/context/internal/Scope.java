@@ -0,0 +1,75 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.exception.ScopeNotActiveException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The instances of {@code SCOPED} components within one scope. Every scoped component has a fixed
+ * slot that is assigned when it is registered, so opening a scope only allocates this object and
+ * one array, and a lookup is an array read.
+ */
+public final class Scope {
+  // set once any scope is bound, so that lookups without one never touch CurrentScope
+  private static volatile boolean bindingUsed = false;
+
+  private final AtomicReferenceArray<Object> instances;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile boolean closed = false;
+
+  Scope(int slots) {
+    this.instances = new AtomicReferenceArray<>(slots);
+  }
+
+  Object get(int slot, ResolutionPlan plan) throws InvocationTargetException {
+    if (slot >= instances.length()) {
+      throw new ScopeNotActiveException(
+          plan.getType().getName() + " was registered after this scope was opened");
+    }
+    Object current = instances.get(slot);
+    if (current != null) return current;
+
+    lock.lock();
+    try {
+      if (closed) throw new ScopeNotActiveException("The scope is already closed");
+      current = instances.get(slot);
+      if (current == null) {
+        current = plan.instantiateScoped(this);
+        instances.set(slot, current);
+      }
+      return current;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Runs the operation with this scope as the current one: scoped components that are requested
+   * without an explicit scope, e.g. from the parent context, resolve to this scope's instances.
+   */
+  public void run(Runnable operation) {
+    bindingUsed = true;
+    CurrentScope.run(this, operation);
+  }
+
+  /** The scope bound by {@link #run}, or {@code null} outside of it. */
+  static Scope current() {
+    return bindingUsed ? CurrentScope.get() : null;
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /** Drops all instances of this scope; getting a scoped component afterwards fails. */
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      for (int i = 0; i < instances.length(); i++) instances.set(i, null);
+    } finally {
+      lock.unlock();
+    }
+  }
+}
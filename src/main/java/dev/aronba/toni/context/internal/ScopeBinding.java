@@ -0,0 +1,9 @@
+package dev.aronba.toni.context.internal;
+
+/** Binds a {@link Scope} to the running thread for {@code runInScope}, see {@link CurrentScope}. */
+interface ScopeBinding {
+  /** The bound scope, or {@code null} outside of {@link #run}. */
+  Scope current();
+
+  void run(Scope scope, Runnable operation);
+}
@@ -0,0 +1,116 @@
+package dev.aronba.toni.context.internal;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Everything a context needs to start without scanning and graph building: the instantiation
+ * levels, the parameter types of the constructor or factory method chosen for each component, the
+ * declaring class and name of each factory method and the interface bindings. Snapshots are
+ * stored in a compact binary file with a string table and are only valid for the classpath
+ * fingerprint they were created with.
+ */
+public record StartupSnapshot(
+    String fingerprint,
+    List<List<String>> levels,
+    Map<String, List<String>> constructors,
+    Map<String, List<String>> factoryMethods,
+    Map<String, List<String>> interfaceToImpls) {
+
+  private static final int MAGIC = 0x544F4E49;
+  private static final int VERSION = 2;
+
+  public static Optional<StartupSnapshot> read(Path file) throws IOException {
+    if (!Files.isRegularFile(file)) return Optional.empty();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) return Optional.empty();
+      String fingerprint = in.readUTF();
+
+      String[] names = new String[in.readInt()];
+      for (int i = 0; i < names.length; i++) names[i] = in.readUTF();
+
+      List<List<String>> levels = new ArrayList<>();
+      for (int level = in.readInt(); level > 0; level--) {
+        levels.add(readNames(in, names));
+      }
+      Map<String, List<String>> constructors = readNameLists(in, names);
+      Map<String, List<String>> factoryMethods = readNameLists(in, names);
+      Map<String, List<String>> interfaceToImpls = readNameLists(in, names);
+      return Optional.of(
+          new StartupSnapshot(fingerprint, levels, constructors, factoryMethods, interfaceToImpls));
+    }
+  }
+
+  public void write(Path file) throws IOException {
+    Map<String, Integer> table = new LinkedHashMap<>();
+    levels.forEach(level -> level.forEach(name -> intern(table, name)));
+    constructors.forEach((name, params) -> intern(table, name, params));
+    factoryMethods.forEach((name, method) -> intern(table, name, method));
+    interfaceToImpls.forEach((name, impls) -> intern(table, name, impls));
+
+    Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeUTF(fingerprint);
+      out.writeInt(table.size());
+      for (String name : table.keySet()) out.writeUTF(name);
+
+      out.writeInt(levels.size());
+      for (List<String> level : levels) writeNames(out, table, level);
+      writeNameLists(out, table, constructors);
+      writeNameLists(out, table, factoryMethods);
+      writeNameLists(out, table, interfaceToImpls);
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void intern(Map<String, Integer> table, String name, List<String> names) {
+    intern(table, name);
+    names.forEach(n -> intern(table, n));
+  }
+
+  private static void intern(Map<String, Integer> table, String name) {
+    table.putIfAbsent(name, table.size());
+  }
+
+  private static void writeNames(
+      DataOutputStream out, Map<String, Integer> table, List<String> names)
+      throws IOException {
+    out.writeInt(names.size());
+    for (String name : names) out.writeInt(table.get(name));
+  }
+
+  private static void writeNameLists(
+      DataOutputStream out, Map<String, Integer> table, Map<String, List<String>> lists)
+      throws IOException {
+    out.writeInt(lists.size());
+    for (var entry : lists.entrySet()) {
+      out.writeInt(table.get(entry.getKey()));
+      writeNames(out, table, entry.getValue());
+    }
+  }
+
+  private static List<String> readNames(DataInputStream in, String[] names) throws IOException {
+    List<String> result = new ArrayList<>();
+    for (int i = in.readInt(); i > 0; i--) result.add(names[in.readInt()]);
+    return result;
+  }
+
+  private static Map<String, List<String>> readNameLists(DataInputStream in, String[] names)
+      throws IOException {
+    Map<String, List<String>> result = new LinkedHashMap<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      String name = names[in.readInt()];
+      result.put(name, readNames(in, names));
+    }
+    return result;
+  }
+}
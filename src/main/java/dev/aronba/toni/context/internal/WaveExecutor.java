@@ -0,0 +1,83 @@
+package dev.aronba.toni.context.internal;
+
+import dev.aronba.toni.context.exception.PostProcessingException;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Runs tasks in topological waves: the tasks of one wave run concurrently on at most {@code
+ * parallelism} threads, and a wave only starts once every task of the previous wave has finished.
+ * The first failure interrupts the running tasks, drops all queued ones and is rethrown.
+ */
+public final class WaveExecutor {
+  private static final ThreadFactory THREAD_FACTORY =
+      Thread.ofPlatform().name("toni-init-", 0).daemon().factory();
+
+  private final int parallelism;
+
+  public WaveExecutor(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+    }
+    this.parallelism = parallelism;
+  }
+
+  /** Calls {@code task} once for every type of every wave. */
+  public void run(List<List<Class<?>>> waves, Consumer<Class<?>> task) {
+    if (parallelism == 1 || waves.stream().allMatch(wave -> wave.size() <= 1)) {
+      for (List<Class<?>> wave : waves) {
+        for (Class<?> type : wave) task.accept(type);
+      }
+      return;
+    }
+    // platform threads, so initializers holding monitors while doing I/O do not pin carriers
+    try (ExecutorService executor = Executors.newFixedThreadPool(parallelism, THREAD_FACTORY)) {
+      for (List<Class<?>> wave : waves) {
+        runWave(executor, wave, task);
+      }
+    }
+  }
+
+  private static void runWave(
+      ExecutorService executor, List<Class<?>> wave, Consumer<Class<?>> task) {
+    if (wave.size() == 1) {
+      task.accept(wave.getFirst());
+      return;
+    }
+    CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+    for (Class<?> type : wave) {
+      completion.submit(
+          () -> {
+            task.accept(type);
+            return null;
+          });
+    }
+    try {
+      // in completion order, so a failure is seen while slower tasks are still running
+      for (int i = 0; i < wave.size(); i++) {
+        completion.take().get();
+      }
+    } catch (ExecutionException e) {
+      executor.shutdownNow();
+      throw rethrow(e.getCause());
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      throw new PostProcessingException("Interrupted while initializing components");
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable cause) {
+    return switch (cause) {
+      case RuntimeException e -> e;
+      case Error e -> throw e;
+      default -> new PostProcessingException(cause.toString());
+    };
+  }
+}
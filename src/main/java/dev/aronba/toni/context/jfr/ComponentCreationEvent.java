@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.aronba.toni.ComponentCreation")
+@Label("Component Creation")
+@Category({"Toni", "Startup"})
+@Description("Selecting the constructor of a component and creating it")
+@StackTrace(false)
+public class ComponentCreationEvent extends Event {
+  @Label("Component")
+  public Class<?> component;
+}
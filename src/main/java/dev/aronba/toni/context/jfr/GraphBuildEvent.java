@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.aronba.toni.GraphBuild")
+@Label("Dependency Graph Build")
+@Category({"Toni", "Startup"})
+@Description("Reflecting over the constructors of the registered classes")
+@StackTrace(false)
+public class GraphBuildEvent extends Event {
+  @Label("Classes")
+  public int classes;
+}
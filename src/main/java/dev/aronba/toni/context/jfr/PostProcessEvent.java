@@ -0,0 +1,21 @@
+package dev.aronba.toni.context.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.aronba.toni.PostProcess")
+@Label("Post-Processing")
+@Category({"Toni", "Startup"})
+@Description("One post-processor invocation on one component")
+@StackTrace(false)
+public class PostProcessEvent extends Event {
+  @Label("Component")
+  public Class<?> component;
+
+  @Label("Post-Processor")
+  public Class<?> postProcessor;
+}
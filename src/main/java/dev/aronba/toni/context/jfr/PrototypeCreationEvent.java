@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.aronba.toni.PrototypeCreation")
+@Label("Prototype Creation")
+@Category({"Toni", "Runtime"})
+@Description("Creation of a prototype instance, including its nested prototypes")
+@StackTrace(false)
+public class PrototypeCreationEvent extends Event {
+  @Label("Component")
+  public Class<?> component;
+}
@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.aronba.toni.Scan")
+@Label("Component Scan")
+@Category({"Toni", "Startup"})
+@Description("Finding the component classes, by index or classpath scan")
+@StackTrace(false)
+public class ScanEvent extends Event {
+  @Label("Components")
+  public int components;
+}
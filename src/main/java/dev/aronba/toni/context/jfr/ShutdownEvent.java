@@ -0,0 +1,22 @@
+package dev.aronba.toni.context.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.aronba.toni.Shutdown")
+@Label("Context Shutdown")
+@Category({"Toni", "Shutdown"})
+@Description("Destruction of all components when the context is closed")
+@StackTrace(false)
+public class ShutdownEvent extends Event {
+  @Label("Components")
+  public int components;
+
+  @Label("Failed")
+  @Description("Components that threw or did not stop within their timeout")
+  public int failed;
+}
@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.aronba.toni.Sort")
+@Label("Dependency Graph Sort")
+@Category({"Toni", "Startup"})
+@Description("Topological sort of the dependency graph into levels")
+@StackTrace(false)
+public class SortEvent extends Event {
+  @Label("Levels")
+  public int levels;
+}
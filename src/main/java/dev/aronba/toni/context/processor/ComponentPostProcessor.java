@@ -4,8 +4,30 @@ import dev.aronba.toni.context.annotation.PostProcessor;
 import dev.aronba.toni.context.core.ApplicationContext;
 import dev.aronba.toni.context.exception.PostProcessingException;
 
+/**
+ * Called for every created component, in dependency order. With {@code
+ * setInitializationParallelism} above {@code 1}, independent components are post-processed on
+ * several threads at once, so a processor must then be thread-safe.
+ */
 @PostProcessor
 public interface ComponentPostProcessor {
   void postProcess(Class<?> type, Object instance, ApplicationContext applicationContext)
       throws PostProcessingException;
+
+  /**
+   * Whether instances of the given type are passed to this processor. It is asked once per type,
+   * so processors that only care about certain types or annotations should narrow it down here
+   * instead of checking every instance in {@link #postProcess}.
+   */
+  default boolean supports(Class<?> type) {
+    return true;
+  }
+
+  /**
+   * Whether this processor also runs for components of earlier {@code register} calls. By default
+   * a processor only sees the components registered together with it and after it.
+   */
+  default boolean processExistingComponents() {
+    return false;
+  }
 }
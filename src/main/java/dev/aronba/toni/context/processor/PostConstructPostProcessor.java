@@ -4,22 +4,53 @@ import dev.aronba.toni.context.annotation.PostConstruct;
 import dev.aronba.toni.context.annotation.PostProcessor;
 import dev.aronba.toni.context.core.ApplicationContext;
 import dev.aronba.toni.context.exception.PostProcessingException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 @PostProcessor
 public class PostConstructPostProcessor implements ComponentPostProcessor {
-  @Override
-  public void postProcess(Class<?> type, Object instance, ApplicationContext applicationContext) {
 
-    for (Method method : type.getDeclaredMethods()) {
-      if (method.isAnnotationPresent(PostConstruct.class)) {
-        try {
-          method.setAccessible(true);
-          method.invoke(instance);
-        } catch (Exception e) {
-          String message = "An error occurred in " + type.getName() + " in the PostConstruct: " + e;
-          throw new PostProcessingException(message);
+  /** The {@code @PostConstruct} methods of every class, looked up once as {@code (Object)void}. */
+  private static final ClassValue<MethodHandle[]> POST_CONSTRUCT_METHODS =
+      new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+          List<MethodHandle> handles = new ArrayList<>();
+          for (Method method : type.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(PostConstruct.class)) {
+              try {
+                method.setAccessible(true);
+                handles.add(
+                    MethodHandles.lookup()
+                        .unreflect(method)
+                        .asType(MethodType.methodType(void.class, Object.class)));
+              } catch (Exception e) {
+                throw new PostProcessingException(
+                    "The PostConstruct " + method + " can not be called: " + e);
+              }
+            }
+          }
+          return handles.toArray(new MethodHandle[0]);
         }
+      };
+
+  @Override
+  public boolean supports(Class<?> type) {
+    return POST_CONSTRUCT_METHODS.get(type).length > 0;
+  }
+
+  @Override
+  public void postProcess(Class<?> type, Object instance, ApplicationContext applicationContext) {
+    for (MethodHandle method : POST_CONSTRUCT_METHODS.get(type)) {
+      try {
+        method.invokeExact(instance);
+      } catch (Throwable e) {
+        String message = "An error occurred in " + type.getName() + " in the PostConstruct: " + e;
+        throw new PostProcessingException(message);
       }
     }
   }
@@ -0,0 +1,111 @@
+package dev.aronba.toni.processor;
+
+import dev.aronba.toni.context.internal.ComponentIndex;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes {@link ComponentIndex#LOCATION} for every class annotated with {@code @Component} or
+ * {@code @PostProcessor}. Entries of a previous (incremental) compilation are kept as long as their
+ * class still exists.
+ */
+@SupportedAnnotationTypes({
+  ComponentIndexProcessor.COMPONENT,
+  ComponentIndexProcessor.POST_PROCESSOR
+})
+public class ComponentIndexProcessor extends AbstractProcessor {
+  static final String COMPONENT = "dev.aronba.toni.context.annotation.Component";
+  static final String POST_PROCESSOR = "dev.aronba.toni.context.annotation.PostProcessor";
+
+  private final ComponentIndex index = new ComponentIndex();
+  private boolean previousIndexRead = false;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (!previousIndexRead) {
+      readPreviousIndex();
+      previousIndexRead = true;
+    }
+
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element instanceof TypeElement type && type.getKind() != ElementKind.ANNOTATION_TYPE) {
+          index.add(binaryName(type), constructorSignatures(type));
+        }
+      }
+    }
+
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    }
+    return false;
+  }
+
+  private List<String> constructorSignatures(TypeElement type) {
+    List<String> signatures = new ArrayList<>();
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (!constructor.getModifiers().contains(Modifier.PUBLIC)) continue;
+      StringJoiner signature = new StringJoiner(",");
+      for (VariableElement parameter : constructor.getParameters()) {
+        signature.add(parameter.asType().toString());
+      }
+      signatures.add(signature.toString());
+    }
+    return signatures;
+  }
+
+  private String binaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  private void readPreviousIndex() {
+    try {
+      FileObject resource =
+          processingEnv
+              .getFiler()
+              .getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.LOCATION);
+      try (InputStream in = resource.openInputStream()) {
+        index.read(in);
+      }
+    } catch (IOException ignore) {
+      // no index from a previous compilation
+    }
+
+    for (String className : Set.copyOf(index.getClassNames())) {
+      if (processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) == null) {
+        index.remove(className);
+      }
+    }
+  }
+
+  private void writeIndex() {
+    if (index.size() == 0) return;
+    try {
+      FileObject resource =
+          processingEnv
+              .getFiler()
+              .createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.LOCATION);
+      try (OutputStream out = resource.openOutputStream()) {
+        index.write(out);
+      }
+    } catch (IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(Diagnostic.Kind.ERROR, "Could not write component index: " + e);
+    }
+  }
+}
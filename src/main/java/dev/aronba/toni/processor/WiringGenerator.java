@@ -0,0 +1,430 @@
+package dev.aronba.toni.processor;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Inject;
+import dev.aronba.toni.context.annotation.Order;
+import dev.aronba.toni.context.annotation.Provides;
+import dev.aronba.toni.context.annotation.Use;
+import dev.aronba.toni.context.core.Lifetime;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+/**
+ * Writes the wiring of one {@code @GenerateWiring} class. Constructor selection and ordering follow
+ * the rules of the runtime: the {@code @Inject} constructor, or else the longest one whose
+ * dependencies are all components of the wiring, created after all of its dependencies.
+ */
+final class WiringGenerator {
+  private static final Set<String> RESERVED_NAMES =
+      Set.of("components", "wire", "getClass", "hashCode", "toString", "notify", "notifyAll");
+
+  private final ProcessingEnvironment processingEnv;
+  private final TypeElement marker;
+  private final String packageName;
+  private final List<TypeElement> components = new ArrayList<>();
+  private final Map<TypeElement, List<TypeElement>> implementations = new HashMap<>();
+  private final Map<TypeElement, ExecutableElement> constructors = new HashMap<>();
+  private final Map<TypeElement, String> names = new HashMap<>();
+
+  /** A constructor parameter the wiring can inject. */
+  private enum Kind {
+    COMPONENT,
+    OPTIONAL,
+    PROVIDER,
+    LIST,
+    SET,
+    ARRAY
+  }
+
+  private record Injection(Kind kind, TypeElement target, VariableElement parameter) {}
+
+  /** The components can not be wired at compile time. */
+  static final class UnwirableException extends Exception {
+    UnwirableException(String message) {
+      super(message);
+    }
+  }
+
+  WiringGenerator(
+      ProcessingEnvironment processingEnv, TypeElement marker, List<TypeElement> candidates) {
+    this.processingEnv = processingEnv;
+    this.marker = marker;
+    this.packageName =
+        processingEnv.getElementUtils().getPackageOf(marker).getQualifiedName().toString();
+    for (TypeElement candidate : candidates) {
+      if (candidate.getKind() == ElementKind.CLASS
+          && !candidate.getModifiers().contains(Modifier.ABSTRACT)) {
+        components.add(candidate);
+      }
+    }
+    components.sort(Comparator.comparing(type -> type.getQualifiedName().toString()));
+  }
+
+  /**
+   * @return the qualified name of the generated class
+   */
+  String generate() throws UnwirableException, IOException {
+    // classes without any injectable constructor are skipped, like at runtime
+    Map<TypeElement, List<ExecutableElement>> candidates = new LinkedHashMap<>();
+    for (TypeElement component : components) {
+      checkWirable(component);
+      List<ExecutableElement> valid = findValidConstructors(component);
+      if (!valid.isEmpty()) candidates.put(component, valid);
+    }
+    components.retainAll(candidates.keySet());
+    for (TypeElement component : components) {
+      for (TypeMirror iface : component.getInterfaces()) {
+        TypeElement ifaceElement = (TypeElement) ((DeclaredType) iface).asElement();
+        implementations.computeIfAbsent(ifaceElement, key -> new ArrayList<>()).add(component);
+      }
+    }
+    for (var entry : candidates.entrySet()) {
+      constructors.put(entry.getKey(), selectConstructor(entry.getKey(), entry.getValue()));
+    }
+
+    List<TypeElement> ordered = sortByDependencies();
+    assignNames(ordered);
+    String className = marker.getSimpleName() + "Wiring";
+    String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+    try (PrintWriter out =
+        new PrintWriter(
+            processingEnv.getFiler().createSourceFile(qualifiedName, marker).openWriter())) {
+      write(out, className, ordered);
+    }
+    return qualifiedName;
+  }
+
+  private void checkWirable(TypeElement component) throws UnwirableException {
+    if (lifetimeOf(component) == Lifetime.SCOPED) {
+      throw new UnwirableException(component + " is SCOPED");
+    }
+    for (ExecutableElement method : ElementFilter.methodsIn(component.getEnclosedElements())) {
+      if (method.getAnnotation(Provides.class) != null) {
+        throw new UnwirableException(component + " has the factory method " + method);
+      }
+    }
+    if (component.getNestingKind() == NestingKind.MEMBER
+        && !component.getModifiers().contains(Modifier.STATIC)) {
+      throw new UnwirableException(component + " is an inner class");
+    }
+    boolean samePackage = packageName.equals(packageOf(component));
+    for (Element type = component; type instanceof TypeElement; type = type.getEnclosingElement()) {
+      if (!type.getModifiers().contains(Modifier.PUBLIC) && !samePackage) {
+        throw new UnwirableException(component + " is not accessible from " + packageName);
+      }
+    }
+  }
+
+  private List<ExecutableElement> findValidConstructors(TypeElement component)
+      throws UnwirableException {
+    List<ExecutableElement> valid = new ArrayList<>();
+    List<ExecutableElement> marked = new ArrayList<>();
+    for (ExecutableElement constructor :
+        ElementFilter.constructorsIn(component.getEnclosedElements())) {
+      if (!constructor.getModifiers().contains(Modifier.PUBLIC)) continue;
+      if (constructor.getAnnotation(Inject.class) != null) marked.add(constructor);
+      if (injectionsOf(constructor) != null) valid.add(constructor);
+    }
+    if (marked.size() > 1) {
+      throw new UnwirableException(component + " has more than one @Inject constructor");
+    }
+    if (marked.size() == 1) {
+      if (!valid.contains(marked.getFirst())) {
+        throw new UnwirableException("The @Inject constructor can not be used: " + marked);
+      }
+      return marked;
+    }
+    return valid;
+  }
+
+  private ExecutableElement selectConstructor(
+      TypeElement component, List<ExecutableElement> candidates) throws UnwirableException {
+    ExecutableElement selected = null;
+    boolean ambiguous = false;
+    String missing = null;
+    for (ExecutableElement constructor : candidates) {
+      String unsatisfied = findUnsatisfied(constructor);
+      if (unsatisfied != null) {
+        if (missing == null) missing = unsatisfied;
+        continue;
+      }
+      int length = constructor.getParameters().size();
+      if (selected == null || length > selected.getParameters().size()) {
+        selected = constructor;
+        ambiguous = false;
+      } else if (length == selected.getParameters().size()) {
+        ambiguous = true;
+      }
+    }
+
+    if (selected == null) {
+      throw new UnwirableException(component + " needs " + missing + ", which is not wired");
+    }
+    if (ambiguous) {
+      throw new UnwirableException(component + " has several usable constructors");
+    }
+    for (TypeMirror thrown : selected.getThrownTypes()) {
+      if (isChecked(thrown)) {
+        throw new UnwirableException(selected + " of " + component + " throws " + thrown);
+      }
+    }
+    return selected;
+  }
+
+  private String findUnsatisfied(ExecutableElement constructor) {
+    for (Injection injection : injectionsOf(constructor)) {
+      if ((injection.kind == Kind.COMPONENT || injection.kind == Kind.PROVIDER)
+          && targetsOf(injection).isEmpty()) {
+        return injection.target.toString();
+      }
+    }
+    return null;
+  }
+
+  /** The parameters of the constructor, or {@code null} if one of them can not be injected. */
+  private List<Injection> injectionsOf(ExecutableElement constructor) {
+    List<Injection> injections = new ArrayList<>();
+    for (VariableElement parameter : constructor.getParameters()) {
+      Injection injection = injectionOf(parameter);
+      if (injection == null) return null;
+      injections.add(injection);
+    }
+    return injections;
+  }
+
+  private Injection injectionOf(VariableElement parameter) {
+    TypeMirror type = parameter.asType();
+    if (type instanceof ArrayType array) {
+      TypeElement element = componentElement(array.getComponentType());
+      return element == null ? null : new Injection(Kind.ARRAY, element, parameter);
+    }
+    if (!(type instanceof DeclaredType declared)) return null;
+    TypeElement raw = (TypeElement) declared.asElement();
+    if (declared.getTypeArguments().size() == 1) {
+      TypeElement argument = componentElement(declared.getTypeArguments().getFirst());
+      Kind kind =
+          switch (raw.getQualifiedName().toString()) {
+            case "java.util.Optional" -> Kind.OPTIONAL;
+            case "java.util.function.Supplier", "dev.aronba.toni.context.core.Provider" ->
+                Kind.PROVIDER;
+            case "java.util.List" -> Kind.LIST;
+            case "java.util.Set" -> Kind.SET;
+            default -> null;
+          };
+      if (kind != null) return argument == null ? null : new Injection(kind, argument, parameter);
+    }
+    TypeElement element = componentElement(type);
+    return element == null ? null : new Injection(Kind.COMPONENT, element, parameter);
+  }
+
+  private static TypeElement componentElement(TypeMirror type) {
+    if (type instanceof DeclaredType declared
+        && declared.asElement() instanceof TypeElement element
+        && element.getAnnotation(Component.class) != null) {
+      return element;
+    }
+    return null;
+  }
+
+  /** The components an injection depends on; an interface depends on all implementations. */
+  private List<TypeElement> targetsOf(Injection injection) {
+    if (injection.target.getKind() == ElementKind.INTERFACE) {
+      return implementations.getOrDefault(injection.target, List.of());
+    }
+    return components.contains(injection.target) ? List.of(injection.target) : List.of();
+  }
+
+  private List<TypeElement> sortByDependencies() throws UnwirableException {
+    List<TypeElement> ordered = new ArrayList<>(components.size());
+    Map<TypeElement, Boolean> visited = new HashMap<>();
+    for (TypeElement component : components) {
+      visit(component, visited, ordered);
+    }
+    return ordered;
+  }
+
+  /** Depth first, visited is {@code false} while the dependencies of a component are visited. */
+  private void visit(
+      TypeElement component, Map<TypeElement, Boolean> visited, List<TypeElement> ordered)
+      throws UnwirableException {
+    Boolean done = visited.putIfAbsent(component, false);
+    if (Boolean.TRUE.equals(done)) return;
+    if (Boolean.FALSE.equals(done)) {
+      throw new UnwirableException("Circular dependency on " + component);
+    }
+    for (Injection injection : injectionsOf(constructors.get(component))) {
+      for (TypeElement target : targetsOf(injection)) {
+        visit(target, visited, ordered);
+      }
+    }
+    visited.put(component, true);
+    ordered.add(component);
+  }
+
+  private void assignNames(List<TypeElement> ordered) {
+    Set<String> used = new HashSet<>(RESERVED_NAMES);
+    for (TypeElement component : ordered) {
+      String simpleName = component.getSimpleName().toString();
+      String base = Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+      String name = base;
+      for (int i = 2;
+          SourceVersion.isKeyword(name) || used.contains(name) || used.contains(name + "Provider");
+          i++) {
+        name = base + i;
+      }
+      used.add(name);
+      used.add(name + "Provider");
+      names.put(component, name);
+    }
+  }
+
+  private void write(PrintWriter out, String className, List<TypeElement> ordered) {
+    if (!packageName.isEmpty()) out.println("package " + packageName + ";");
+    out.println();
+    out.println("import dev.aronba.toni.context.core.Provider;");
+    out.println("import dev.aronba.toni.context.core.Wiring;");
+    out.println("import java.util.List;");
+    out.println();
+    out.println("/** Creates the components below " + packageName + ". Generated, do not edit. */");
+    out.println(
+        "@javax.annotation.processing.Generated(\"" + WiringProcessor.class.getName() + "\")");
+    out.println("public final class " + className + " implements Wiring {");
+    for (TypeElement component : ordered) {
+      out.println("  private " + fieldType(component) + " " + field(component) + ";");
+    }
+    out.println();
+    out.println("  @Override");
+    out.println("  public List<Class<?>> components() {");
+    out.println(
+        "    return List.of("
+            + ordered.stream()
+                .map(c -> c.getQualifiedName() + ".class")
+                .collect(Collectors.joining(", "))
+            + ");");
+    out.println("  }");
+    out.println();
+    out.println("  @Override");
+    out.println("  public void wire(Wiring.Registrar registrar) {");
+    for (TypeElement component : ordered) {
+      String type = component.getQualifiedName().toString();
+      String creation = "new " + type + "(" + argumentsOf(component) + ")";
+      String registration =
+          switch (lifetimeOf(component)) {
+            case PROTOTYPE -> "prototype(" + type + ".class, () -> " + creation + ")";
+            case LAZY -> "lazy(" + type + ".class, () -> " + creation + ")";
+            default -> "singleton(" + type + ".class, " + creation + ")";
+          };
+      out.println("    " + field(component) + " = registrar." + registration + ";");
+    }
+    out.println("  }");
+    for (TypeElement component : ordered) {
+      out.println();
+      out.println("  public " + component.getQualifiedName() + " " + names.get(component) + "() {");
+      out.println("    return " + instanceOf(component) + ";");
+      out.println("  }");
+    }
+    out.println("}");
+  }
+
+  private String argumentsOf(TypeElement component) {
+    List<String> arguments = new ArrayList<>();
+    for (Injection injection : injectionsOf(constructors.get(component))) {
+      arguments.add(expressionOf(injection));
+    }
+    return String.join(", ", arguments);
+  }
+
+  private String expressionOf(Injection injection) {
+    String elementType = injection.target.getQualifiedName().toString();
+    List<TypeElement> targets = targetsOf(injection);
+    return switch (injection.kind) {
+      case COMPONENT -> instanceOf(select(injection, targets));
+      case OPTIONAL ->
+          targets.isEmpty()
+              ? "java.util.Optional.empty()"
+              : "java.util.Optional.of(" + instanceOf(select(injection, targets)) + ")";
+      case PROVIDER ->
+          "(" + injection.parameter.asType() + ") () -> " + instanceOf(select(injection, targets));
+      case LIST -> "List.<" + elementType + ">of(" + instancesOf(targets) + ")";
+      case SET ->
+          "new dev.aronba.toni.context.internal.ArraySet<"
+              + elementType
+              + ">(List.<"
+              + elementType
+              + ">of("
+              + instancesOf(targets)
+              + "))";
+      case ARRAY -> "new " + elementType + "[] {" + instancesOf(targets) + "}";
+    };
+  }
+
+  /** The implementation named by {@code @Use}, or else the first one. */
+  private static TypeElement select(Injection injection, List<TypeElement> targets) {
+    Use use = injection.parameter.getAnnotation(Use.class);
+    if (use != null) {
+      for (TypeElement target : targets) {
+        if (target.getSimpleName().contentEquals(use.implementationName())) return target;
+      }
+    }
+    return targets.getFirst();
+  }
+
+  /** Ordered by {@code @Order}, unannotated ones last. */
+  private String instancesOf(List<TypeElement> targets) {
+    return targets.stream()
+        .sorted(Comparator.comparingInt(WiringGenerator::orderOf))
+        .map(this::instanceOf)
+        .collect(Collectors.joining(", "));
+  }
+
+  private String instanceOf(TypeElement component) {
+    return lifetimeOf(component) == Lifetime.SINGELTON
+        ? names.get(component)
+        : names.get(component) + "Provider.get()";
+  }
+
+  private String field(TypeElement component) {
+    return lifetimeOf(component) == Lifetime.SINGELTON
+        ? names.get(component)
+        : names.get(component) + "Provider";
+  }
+
+  private static String fieldType(TypeElement component) {
+    return lifetimeOf(component) == Lifetime.SINGELTON
+        ? component.getQualifiedName().toString()
+        : "Provider<" + component.getQualifiedName() + ">";
+  }
+
+  private static Lifetime lifetimeOf(TypeElement component) {
+    Component annotation = component.getAnnotation(Component.class);
+    return annotation == null ? Lifetime.SINGELTON : annotation.value();
+  }
+
+  private static int orderOf(TypeElement component) {
+    Order order = component.getAnnotation(Order.class);
+    return order == null ? Integer.MAX_VALUE : order.value();
+  }
+
+  private boolean isChecked(TypeMirror thrown) {
+    TypeMirror runtimeException =
+        processingEnv.getElementUtils().getTypeElement("java.lang.RuntimeException").asType();
+    TypeMirror error = processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType();
+    return thrown.getKind() == TypeKind.DECLARED
+        && !processingEnv.getTypeUtils().isSubtype(thrown, runtimeException)
+        && !processingEnv.getTypeUtils().isSubtype(thrown, error);
+  }
+
+  private String packageOf(TypeElement type) {
+    return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+  }
+}
@@ -0,0 +1,116 @@
+package dev.aronba.toni.processor;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes a {@code Wiring} source file for every class annotated with {@code @GenerateWiring} and
+ * lists the generated classes as {@code java.util.ServiceLoader} services, so the {@code
+ * ContextScanner} finds them without scanning.
+ */
+@SupportedAnnotationTypes({WiringProcessor.GENERATE_WIRING, ComponentIndexProcessor.COMPONENT})
+public class WiringProcessor extends AbstractProcessor {
+  static final String GENERATE_WIRING = "dev.aronba.toni.context.annotation.GenerateWiring";
+  static final String SERVICES = "META-INF/services/dev.aronba.toni.context.core.Wiring";
+
+  private final Set<String> wirings = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement generateWiring = processingEnv.getElementUtils().getTypeElement(GENERATE_WIRING);
+    TypeElement component =
+        processingEnv.getElementUtils().getTypeElement(ComponentIndexProcessor.COMPONENT);
+    if (generateWiring != null && component != null) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(generateWiring)) {
+        if (element instanceof TypeElement marker) {
+          generate(marker, componentsBelow(marker, roundEnv.getElementsAnnotatedWith(component)));
+        }
+      }
+    }
+
+    if (roundEnv.processingOver() && !wirings.isEmpty()) {
+      writeServices();
+    }
+    return false;
+  }
+
+  private List<TypeElement> componentsBelow(TypeElement marker, Set<? extends Element> components) {
+    String markerPackage = packageOf(marker);
+    List<TypeElement> below = new ArrayList<>();
+    for (Element element : components) {
+      if (element instanceof TypeElement type && type.getKind() != ElementKind.ANNOTATION_TYPE) {
+        String typePackage = packageOf(type);
+        if (typePackage.equals(markerPackage) || typePackage.startsWith(markerPackage + ".")) {
+          below.add(type);
+        }
+      }
+    }
+    return below;
+  }
+
+  private void generate(TypeElement marker, List<TypeElement> components) {
+    try {
+      wirings.add(new WiringGenerator(processingEnv, marker, components).generate());
+    } catch (WiringGenerator.UnwirableException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.WARNING,
+              "No wiring generated, the components are created reflectively: " + e.getMessage(),
+              marker);
+    } catch (IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(Diagnostic.Kind.ERROR, "Could not write wiring: " + e, marker);
+    }
+  }
+
+  private String packageOf(TypeElement type) {
+    return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+  }
+
+  /** Keeps the wirings of a previous (incremental) compilation as long as they still exist. */
+  private void writeServices() {
+    try {
+      FileObject previous =
+          processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICES);
+      try (BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(previous.openInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.isBlank() && processingEnv.getElementUtils().getTypeElement(line) != null) {
+            wirings.add(line.strip());
+          }
+        }
+      }
+    } catch (IOException ignore) {
+      // no wirings from a previous compilation
+    }
+
+    try {
+      FileObject resource =
+          processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES);
+      try (Writer writer =
+          new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+        for (String wiring : wirings) writer.write(wiring + "\n");
+      }
+    } catch (IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(Diagnostic.Kind.ERROR, "Could not list generated wirings: " + e);
+    }
+  }
+}
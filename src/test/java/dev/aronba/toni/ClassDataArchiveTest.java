@@ -0,0 +1,57 @@
+package dev.aronba.toni;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ClassDataArchiveTest {
+
+  @Test
+  void shouldDetectDynamicArchive() {
+    ClassDataArchive training =
+        ClassDataArchive.of(List.of("-XX:ArchiveClassesAtExit=app.jsa"), true);
+    ClassDataArchive archived =
+        ClassDataArchive.of(List.of("-Xmx1g", "-XX:SharedArchiveFile=app.jsa"), true);
+
+    assertEquals(new ClassDataArchive(null, "app.jsa"), training);
+    assertEquals(new ClassDataArchive("app.jsa", null), archived);
+  }
+
+  @Test
+  void shouldDetectAotCache() {
+    assertEquals(
+        new ClassDataArchive(null, "app.aot"),
+        ClassDataArchive.of(List.of("-XX:AOTCacheOutput=app.aot"), true));
+    assertEquals(
+        new ClassDataArchive(null, "app.aotconf"),
+        ClassDataArchive.of(
+            List.of("-XX:AOTMode=record", "-XX:AOTConfiguration=app.aotconf"), true));
+    assertEquals(
+        new ClassDataArchive("app.aot", null),
+        ClassDataArchive.of(List.of("-XX:AOTCache=app.aot"), true));
+  }
+
+  @Test
+  void shouldNotReportArchiveWithoutSharing() {
+    // the JVM could not map the archive, for example because it was created by another JDK
+    ClassDataArchive archived =
+        ClassDataArchive.of(List.of("-XX:SharedArchiveFile=app.jsa"), false);
+
+    assertEquals(new ClassDataArchive(null, null), archived);
+  }
+
+  @Test
+  void shouldReadTheArgumentsOfTheCurrentJvm() {
+    ClassDataArchive archive = ClassDataArchive.ofCurrentJvm();
+
+    assertNull(archive.used());
+    assertNull(archive.recording());
+  }
+
+  @Test
+  void shouldReportNothingWithoutArchive() {
+    assertEquals(
+        new ClassDataArchive(null, null), ClassDataArchive.of(List.of("-Xmx1g"), true));
+  }
+}
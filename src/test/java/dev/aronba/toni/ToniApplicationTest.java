@@ -0,0 +1,65 @@
+package dev.aronba.toni;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.testClasses.SimpleComponent;
+import dev.aronba.toni.context.testClasses.memory.N0000;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class ToniApplicationTest {
+  private static final String MEMORY_PACKAGE = N0000.class.getPackageName();
+
+  @Test
+  void shouldNarrowTheScanToThePackageArguments() throws Exception {
+    ApplicationContext applicationContext =
+        ToniApplication.scannerFromArguments(
+                new String[] {"--toni.scan.packages=" + MEMORY_PACKAGE, "--verbose", "app.conf"})
+            .scan();
+
+    assertNotNull(applicationContext.get(N0000.class));
+    assertNull(applicationContext.get(SimpleComponent.class));
+  }
+
+  @Test
+  void shouldReturnFromTrainingRun() throws Exception {
+    String[] args = {"--toni.scan.packages=" + MEMORY_PACKAGE, "--toni.train"};
+
+    ToniApplication.run(args);
+
+    assertTrue(ToniApplication.isTrainingRun(args));
+    assertFalse(ToniApplication.isTrainingRun(new String[] {"--toni.scan.packages=a.b"}));
+  }
+
+  @Test
+  void shouldWriteTheSnapshotOfTheSnapshotArgument() throws Exception {
+    Path file = Files.createTempFile("toni", ".snapshot");
+    Files.delete(file);
+
+    ToniApplication.scannerFromArguments(
+            new String[] {
+              "--toni.scan.packages=" + MEMORY_PACKAGE,
+              "--toni.scan.threads=2",
+              "--toni.scan.snapshot=" + file
+            })
+        .scan();
+
+    assertTrue(Files.size(file) > 0);
+    Files.delete(file);
+  }
+
+  @Test
+  void shouldRejectInvalidThreadArguments() {
+    for (String threads : new String[] {"many", "0", "-2", ""}) {
+      IllegalArgumentException e =
+          assertThrows(
+              IllegalArgumentException.class,
+              () ->
+                  ToniApplication.scannerFromArguments(
+                      new String[] {"--toni.scan.threads=" + threads}));
+      assertTrue(e.getMessage().contains("--toni.scan.threads"), e.getMessage());
+    }
+  }
+}
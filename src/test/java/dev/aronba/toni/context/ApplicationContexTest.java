@@ -4,10 +4,22 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import dev.aronba.toni.context.core.ApplicationContext;
 import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
 import dev.aronba.toni.context.exception.CircularDependencyException;
+import dev.aronba.toni.context.exception.InstatitationException;
 import dev.aronba.toni.context.exception.NoImplementationFoundException;
+import dev.aronba.toni.context.exception.PostProcessingException;
+import dev.aronba.toni.context.exception.UnsatisfiedDependencyException;
 import dev.aronba.toni.context.processor.PostConstructPostProcessor;
 import dev.aronba.toni.context.testClasses.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -15,7 +27,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 class ApplicationContexTest {
 
   static Stream<ApplicationContext> provideImplementations() {
-    return Stream.of(new BasicApplicationContext());
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
   }
 
   @ParameterizedTest
@@ -172,6 +184,23 @@ class ApplicationContexTest {
                 CircularDependentComponent2.class, CircularDependentComponent3.class));
   }
 
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldReportCyclePath(ApplicationContext applicationContext) {
+    CircularDependencyException exception =
+        assertThrows(
+            CircularDependencyException.class,
+            () ->
+                applicationContext.register(
+                    CircularDependentComponent2.class, CircularDependentComponent3.class));
+    String two = CircularDependentComponent2.class.getName();
+    String three = CircularDependentComponent3.class.getName();
+    assertTrue(
+        exception.getMessage().endsWith(two + " -> " + three + " -> " + two)
+            || exception.getMessage().endsWith(three + " -> " + two + " -> " + three),
+        exception.getMessage());
+  }
+
   @ParameterizedTest
   @MethodSource("provideImplementations")
   void shouldTryToFindImplementationOfInterfaceWhenDependingOnInterface(
@@ -247,6 +276,215 @@ class ApplicationContexTest {
     assertNotEquals(prototypeComponent.id, prototypeComponent2.id);
   }
 
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCreateNestedPrototypesWithSharedSingletons(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                NestedPrototypeComponent.class, PrototypeComponent.class, EmptyComponent.class));
+
+    NestedPrototypeComponent first = applicationContext.get(NestedPrototypeComponent.class);
+    NestedPrototypeComponent second = applicationContext.get(NestedPrototypeComponent.class);
+
+    assertNotSame(first, second);
+    assertNotSame(first.getPrototypeComponent(), second.getPrototypeComponent());
+    assertSame(first.getEmptyComponent(), second.getEmptyComponent());
+    assertSame(applicationContext.get(EmptyComponent.class), first.getEmptyComponent());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldInjectProviders(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                ProviderComponent.class, PrototypeComponent.class, EmptyComponent.class));
+
+    ProviderComponent providerComponent = applicationContext.get(ProviderComponent.class);
+    PrototypeComponent first = providerComponent.getPrototypeProvider().get();
+    PrototypeComponent second = providerComponent.getPrototypeProvider().get();
+
+    assertNotNull(first);
+    assertNotSame(first, second);
+    assertSame(
+        applicationContext.get(EmptyComponent.class), providerComponent.getEmptySupplier().get());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRethrowFailureOfProvider(ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(FailingProviderComponent.class, FailingPrototypeComponent.class);
+    FailingProviderComponent providerComponent =
+        applicationContext.get(FailingProviderComponent.class);
+
+    FailingPrototypeComponent.failing = true;
+    try {
+      InstatitationException exception =
+          assertThrows(
+              InstatitationException.class,
+              () -> providerComponent.getFailingProvider().get());
+      assertInstanceOf(IllegalStateException.class, exception.getCause());
+    } finally {
+      FailingPrototypeComponent.failing = false;
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldUseInjectAnnotatedConstructor(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                InjectAnnotatedComponent.class, SimpleComponent.class, EmptyComponent.class));
+
+    InjectAnnotatedComponent component = applicationContext.get(InjectAnnotatedComponent.class);
+    assertSame(applicationContext.get(EmptyComponent.class), component.getEmptyComponent());
+    assertNull(component.getSimpleComponent());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldUseLongestSatisfiableConstructor(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                ComplexComponent.class, SimpleComponent.class, EmptyComponent.class));
+
+    ComplexComponent component = applicationContext.get(ComplexComponent.class);
+    assertSame(applicationContext.get(SimpleComponent.class), component.getSimpleComponent());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldFailBeforeAnyConstructorRuns(ApplicationContext applicationContext) {
+    int constructions = ConstructionCountingComponent.CONSTRUCTIONS.get();
+
+    assertThrows(
+        UnsatisfiedDependencyException.class,
+        () ->
+            applicationContext.register(
+                ConstructionCountingComponent.class, LazyDependentComponent.class));
+    assertEquals(constructions, ConstructionCountingComponent.CONSTRUCTIONS.get());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldInjectAllImplementationsInOrder(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                UnorderedStep.class,
+                Pipeline.class,
+                SecondStep.class,
+                PipelineStep.class,
+                FirstStep.class));
+
+    Pipeline pipeline = applicationContext.get(Pipeline.class);
+    List<PipelineStep> expected =
+        List.of(
+            applicationContext.get(FirstStep.class),
+            applicationContext.get(SecondStep.class),
+            applicationContext.get(UnorderedStep.class));
+
+    assertEquals(expected, pipeline.getStepList());
+    assertEquals(expected, List.copyOf(pipeline.getStepSet()));
+    assertEquals(expected, List.of(pipeline.getStepArray()));
+    assertThrows(UnsupportedOperationException.class, () -> pipeline.getStepList().clear());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldPostProcessEveryPrototypeInstance(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                PostConstructPrototypeComponent.class, PostConstructPostProcessor.class));
+
+    PostConstructPrototypeComponent first =
+        applicationContext.get(PostConstructPrototypeComponent.class);
+    PostConstructPrototypeComponent second =
+        applicationContext.get(PostConstructPrototypeComponent.class);
+
+    assertNotSame(first, second);
+    assertTrue(first.isInitialized());
+    assertTrue(second.isInitialized());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldOnlyPassSupportedTypesToPostProcessor(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                ComplexComponent.class,
+                SimpleComponent.class,
+                EmptyComponent.class,
+                EmptyComponentPostProcessor.class));
+
+    EmptyComponentPostProcessor postProcessor =
+        applicationContext.get(EmptyComponentPostProcessor.class);
+    assertEquals(List.of(EmptyComponent.class), postProcessor.getProcessedTypes());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldResolveDependenciesOfEarlierRegistrations(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () -> applicationContext.register(SimpleComponent.class, EmptyComponent.class));
+    assertDoesNotThrow(() -> applicationContext.register(ComplexComponent.class));
+
+    ComplexComponent complexComponent = applicationContext.get(ComplexComponent.class);
+    assertSame(applicationContext.get(SimpleComponent.class), complexComponent.getSimpleComponent());
+    assertSame(applicationContext.get(EmptyComponent.class), complexComponent.getEmptyComponent());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldPostProcessComponentsOfEarlierRegistrationsOnlyOnce(
+      ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                InitCountingComponent.class, PostConstructPostProcessor.class));
+    assertDoesNotThrow(() -> applicationContext.register(EmptyComponent.class));
+
+    assertEquals(1, applicationContext.get(InitCountingComponent.class).getInitCount());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRunNewPostProcessorOnExistingComponentsOnlyWhenAsked(
+      ApplicationContext applicationContext) {
+    assertDoesNotThrow(() -> applicationContext.register(EmptyComponent.class));
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                EmptyComponentPostProcessor.class, ExistingComponentsPostProcessor.class));
+
+    assertEquals(
+        List.of(), applicationContext.get(EmptyComponentPostProcessor.class).getProcessedTypes());
+    assertEquals(
+        List.of(EmptyComponent.class),
+        applicationContext.get(ExistingComponentsPostProcessor.class).getProcessedTypes());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldPassSubtypesOfSupportedTypeToPostProcessor(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                ServiceInterface.class,
+                ServiceInterfaceImpl.class,
+                EmptyComponent.class,
+                ServiceInterfacePostProcessor.class));
+
+    ServiceInterfacePostProcessor postProcessor =
+        applicationContext.get(ServiceInterfacePostProcessor.class);
+    assertEquals(List.of(ServiceInterfaceImpl.class), postProcessor.getProcessedTypes());
+  }
+
   @ParameterizedTest
   @MethodSource("provideImplementations")
   void shouldInstantiateConstructorsWithNoParams(ApplicationContext applicationContext) {
@@ -288,4 +526,166 @@ class ApplicationContexTest {
   @ParameterizedTest
   @MethodSource("provideImplementations")
   void shouldResolveOptionalInterfaceDependencies(ApplicationContext applicationContext) {}
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldGetSameSingletonFromManyThreads(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(EmptyComponent.class, SimpleComponent.class);
+    SimpleComponent expected = applicationContext.get(SimpleComponent.class);
+
+    List<Future<SimpleComponent>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 1_000; i++) {
+        results.add(executor.submit(() -> applicationContext.get(SimpleComponent.class)));
+      }
+    }
+    for (Future<SimpleComponent> result : results) {
+      assertSame(expected, result.get());
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCreateLazyComponentOnFirstGet(ApplicationContext applicationContext)
+      throws Exception {
+    int createdBefore = LazyComponent.CREATED.get();
+    applicationContext.register(
+        LazyComponent.class, EmptyComponent.class, PostConstructPostProcessor.class);
+
+    assertEquals(createdBefore, LazyComponent.CREATED.get());
+
+    List<Future<LazyComponent>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 100; i++) {
+        results.add(executor.submit(() -> applicationContext.get(LazyComponent.class)));
+      }
+    }
+    LazyComponent lazyComponent = results.getFirst().get();
+    for (Future<LazyComponent> result : results) {
+      assertSame(lazyComponent, result.get());
+    }
+    assertEquals(createdBefore + 1, LazyComponent.CREATED.get());
+    assertTrue(lazyComponent.isInitialized());
+    assertSame(applicationContext.get(EmptyComponent.class), lazyComponent.getEmptyComponent());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldNotCreateLazyComponentTwiceWhenRequestedWhileCreating(
+      ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(ReentrantLazyComponent.class, ReentrantLazyPostProcessor.class);
+    int createdBefore = ReentrantLazyComponent.CREATED.get();
+
+    assertThrows(
+        InstatitationException.class, () -> applicationContext.get(ReentrantLazyComponent.class));
+    assertEquals(createdBefore + 1, ReentrantLazyComponent.CREATED.get());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldThrowWhenLazyComponentCanNotBeCreated(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(FailingLazyComponent.class);
+
+    InstatitationException exception =
+        assertThrows(
+            InstatitationException.class, () -> applicationContext.get(FailingLazyComponent.class));
+    assertInstanceOf(IllegalStateException.class, exception.getCause());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCreateLazyComponentWhenInjected(ApplicationContext applicationContext) {
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                LazyDependentComponent.class, LazyComponent.class, EmptyComponent.class));
+
+    LazyDependentComponent dependent = applicationContext.get(LazyDependentComponent.class);
+    assertNotNull(dependent.getLazyComponent());
+    assertSame(dependent.getLazyComponent(), applicationContext.get(LazyComponent.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldPostProcessOnRegisteringThreadByDefault(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        ThreadRecordingPostProcessor.class, EmptyComponent.class, SlowInitComponent.class);
+
+    assertEquals(
+        Set.of(Thread.currentThread()),
+        applicationContext.get(ThreadRecordingPostProcessor.class).getThreads());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldPostProcessLazyComponentsOfOtherThreadsDuringRegistration(
+      ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(
+        LazyComponent.class, EmptyComponent.class, PostConstructPostProcessor.class);
+    BlockingComponent.STARTED = new CountDownLatch(1);
+    BlockingComponent.RELEASE = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+      Future<?> registration =
+          executor.submit(
+              () -> {
+                applicationContext.register(BlockingComponent.class);
+                return null;
+              });
+      assertTrue(BlockingComponent.STARTED.await(5, TimeUnit.SECONDS));
+
+      LazyComponent lazyComponent = applicationContext.get(LazyComponent.class);
+      assertTrue(lazyComponent.isInitialized());
+
+      BlockingComponent.RELEASE.countDown();
+      registration.get(5, TimeUnit.SECONDS);
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRunPostConstructAfterDependenciesAreInitialized(
+      ApplicationContext applicationContext) {
+    ((BasicApplicationContext) applicationContext).setInitializationParallelism(4);
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                SlowInitDependentComponent.class,
+                SlowInitComponent.class,
+                PostConstructPostProcessor.class));
+
+    assertTrue(
+        applicationContext.get(SlowInitDependentComponent.class).isInitializedAfterDependency());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldInitializeIndependentComponentsInParallel(ApplicationContext applicationContext) {
+    ((BasicApplicationContext) applicationContext).setInitializationParallelism(2);
+    assertDoesNotThrow(
+        () ->
+            applicationContext.register(
+                ParallelInitComponent.class,
+                OtherParallelInitComponent.class,
+                PostConstructPostProcessor.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldStopInitializingAfterFailure(ApplicationContext applicationContext) {
+    ((BasicApplicationContext) applicationContext).setInitializationParallelism(4);
+    assertThrows(
+        PostProcessingException.class,
+        () ->
+            applicationContext.register(
+                FailingInitDependentComponent.class,
+                FailingInitComponent.class,
+                SlowInitComponent.class,
+                PostConstructPostProcessor.class));
+
+    assertFalse(applicationContext.get(FailingInitDependentComponent.class).isInitialized());
+  }
 }
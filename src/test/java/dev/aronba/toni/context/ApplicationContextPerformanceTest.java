@@ -4,15 +4,17 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import dev.aronba.toni.context.core.ApplicationContext;
 import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
 import dev.aronba.toni.context.testClasses.perfomance.*;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 class ApplicationContextPerformanceTest {
 
   static Stream<ApplicationContext> provideImplementations() {
-    return Stream.of(new BasicApplicationContext());
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
   }
 
   @ParameterizedTest
@@ -32,9 +34,25 @@ class ApplicationContextPerformanceTest {
 
     long elapsedTime = (endTime - startTime) / 1_000_000;
 
-    System.out.println("Time taken to build context: " + elapsedTime + " ms");
+    System.out.println(
+        "Time taken to build "
+            + applicationContext.getClass().getSimpleName()
+            + ": "
+            + elapsedTime
+            + " ms");
 
     G lastComponent = applicationContext.get(G.class);
     assertNotNull(lastComponent);
   }
+
+  @Test
+  void shouldInstantiateIndependentComponentsConcurrently() throws Exception {
+    ApplicationContext applicationContext = new ParallelApplicationContext();
+
+    // each constructor waits for the other one, so they only finish if they run at the same time
+    applicationContext.register(ConcurrentComponent.class, OtherConcurrentComponent.class);
+
+    assertNotNull(applicationContext.get(ConcurrentComponent.class));
+    assertNotNull(applicationContext.get(OtherConcurrentComponent.class));
+  }
 }
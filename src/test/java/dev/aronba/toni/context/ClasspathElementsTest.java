@@ -0,0 +1,70 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.internal.ClasspathElements;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import org.junit.jupiter.api.Test;
+
+class ClasspathElementsTest {
+
+  @Test
+  void shouldListUrlsAndManifestClassPaths() throws Exception {
+    Path temp = Files.createTempDirectory("toni");
+    Path classes = Files.createDirectories(temp.resolve("classes"));
+    Path library = emptyJar(temp.resolve("lib/library.jar"));
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, "lib/library.jar");
+    Path launcher = temp.resolve("launcher.jar");
+    try (OutputStream out = Files.newOutputStream(launcher)) {
+      new JarOutputStream(out, manifest).close();
+    }
+
+    URL[] urls = {classes.toUri().toURL(), launcher.toUri().toURL()};
+    try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+      assertEquals(
+          List.of(classes, launcher, library),
+          ClasspathElements.of(classLoader).orElseThrow(AssertionError::new));
+    }
+  }
+
+  @Test
+  void shouldNotListClassLoadersThatHideTheirElements() {
+    ClassLoader hiding = new ClassLoader(getClass().getClassLoader()) {};
+
+    assertTrue(ClasspathElements.of(hiding).isEmpty());
+    assertTrue(ClasspathElements.of(getClass().getClassLoader()).isPresent());
+  }
+
+  @Test
+  void shouldOnlyFindClassesOfThePackages() throws Exception {
+    Path jar = Files.createTempDirectory("toni").resolve("components.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry("a/b/C.class"));
+    }
+
+    assertTrue(ClasspathElements.containsPackages(jar, List.of()));
+    assertTrue(ClasspathElements.containsPackages(jar, List.of("a.b")));
+    assertTrue(ClasspathElements.containsPackages(jar, List.of("x", "a")));
+    assertFalse(ClasspathElements.containsPackages(jar, List.of("a.bc")));
+    assertFalse(ClasspathElements.containsPackages(jar, List.of("x")));
+  }
+
+  private static Path emptyJar(Path jar) throws Exception {
+    Files.createDirectories(jar.getParent());
+    try (OutputStream out = Files.newOutputStream(jar)) {
+      new JarOutputStream(out).close();
+    }
+    return jar;
+  }
+}
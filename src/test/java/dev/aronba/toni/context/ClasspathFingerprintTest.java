@@ -0,0 +1,35 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.internal.ClasspathFingerprint;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ClasspathFingerprintTest {
+
+  @Test
+  void shouldOnlyChangeWithTheClasspathOrSettings() throws Exception {
+    Path classes = Files.createTempDirectory("toni");
+    Path component = Files.writeString(classes.resolve("A.class"), "a");
+    Path jar = Files.writeString(Files.createTempFile("toni", ".jar"), "jar");
+    List<Path> classpath = List.of(classes, jar);
+
+    String fingerprint = ClasspathFingerprint.of(classpath, List.of("a.b"));
+    assertEquals(fingerprint, ClasspathFingerprint.of(classpath, List.of("a.b")));
+    assertNotEquals(fingerprint, ClasspathFingerprint.of(classpath, List.of("a.c")));
+    assertNotEquals(fingerprint, ClasspathFingerprint.of(List.of(classes), List.of("a.b")));
+
+    Files.setLastModifiedTime(component, FileTime.fromMillis(0));
+    String recompiled = ClasspathFingerprint.of(classpath, List.of("a.b"));
+    assertNotEquals(fingerprint, recompiled);
+
+    Files.writeString(classes.resolve("B.class"), "b");
+    assertNotEquals(recompiled, ClasspathFingerprint.of(classpath, List.of("a.b")));
+
+    Files.delete(jar);
+  }
+}
@@ -0,0 +1,84 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.internal.ComponentIndex;
+import dev.aronba.toni.context.testClasses.ComplexComponent;
+import dev.aronba.toni.context.testClasses.SimpleComponent;
+import dev.aronba.toni.context.testClasses.SimplePostProcessor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.Test;
+
+class ComponentIndexTest {
+
+  @Test
+  void shouldGenerateIndexForTestComponents() throws Exception {
+    ComponentIndex index =
+        ComponentIndex.load(getClass().getClassLoader()).orElseThrow(AssertionError::new);
+
+    assertTrue(index.getClassNames().contains(SimpleComponent.class.getName()));
+    assertTrue(index.getClassNames().contains(SimplePostProcessor.class.getName()));
+    assertEquals(
+        List.of("dev.aronba.toni.context.testClasses.EmptyComponent"),
+        index.getConstructorSignatures(SimpleComponent.class.getName()));
+    assertEquals(3, index.getConstructorSignatures(ComplexComponent.class.getName()).size());
+  }
+
+  @Test
+  void shouldReadWhatWasWritten() throws Exception {
+    ComponentIndex index = new ComponentIndex();
+    index.add("a.NoArgs", List.of(""));
+    index.add("a.Multi", List.of("a.NoArgs", "a.NoArgs,java.util.Optional<a.Other>"));
+    index.add("a.Interface", List.of());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    index.write(out);
+    ComponentIndex read = new ComponentIndex();
+    read.read(new ByteArrayInputStream(out.toByteArray()));
+
+    assertIterableEquals(List.of("a.NoArgs", "a.Multi", "a.Interface"), read.getClassNames());
+    assertEquals(List.of(""), read.getConstructorSignatures("a.NoArgs"));
+    assertEquals(
+        List.of("a.NoArgs", "a.NoArgs,java.util.Optional<a.Other>"),
+        read.getConstructorSignatures("a.Multi"));
+    assertEquals(List.of(), read.getConstructorSignatures("a.Interface"));
+  }
+
+  @Test
+  void shouldCoverTheDirectoriesAndJarsWithAnIndex() throws Exception {
+    Path temp = Files.createTempDirectory("toni");
+    Path directory = temp.resolve("classes");
+    Files.createDirectories(directory.resolve("META-INF/toni"));
+    Files.writeString(directory.resolve(ComponentIndex.LOCATION), "a.InDirectory\n");
+    Path jar = temp.resolve("indexed.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry(ComponentIndex.LOCATION));
+      out.write("a.InJar\n".getBytes(StandardCharsets.UTF_8));
+    }
+    Path unindexed = temp.resolve("plain.jar");
+    try (OutputStream out = Files.newOutputStream(unindexed)) {
+      new JarOutputStream(out).close();
+    }
+
+    ComponentIndex index;
+    URL[] urls = {directory.toUri().toURL(), jar.toUri().toURL(), unindexed.toUri().toURL()};
+    try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+      index = ComponentIndex.load(classLoader).orElseThrow(AssertionError::new);
+    }
+
+    assertEquals(2, index.size());
+    assertTrue(index.covers(directory));
+    assertTrue(index.covers(jar));
+    assertFalse(index.covers(unindexed));
+  }
+}
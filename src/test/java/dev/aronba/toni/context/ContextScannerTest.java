@@ -0,0 +1,200 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ContextScanner;
+import dev.aronba.toni.context.internal.ClasspathElements;
+import dev.aronba.toni.context.internal.StartupSnapshot;
+import dev.aronba.toni.context.testClasses.EmptyComponent;
+import dev.aronba.toni.context.testClasses.SimpleComponent;
+import dev.aronba.toni.context.testClasses.memory.N0000;
+import dev.aronba.toni.context.testClasses.memory.SyntheticGraph;
+import dev.aronba.toni.context.testClasses.wiring.WiredStartup;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.Test;
+
+class ContextScannerTest {
+  private static final String MEMORY_PACKAGE = N0000.class.getPackageName();
+  private static final String JAR_COMPONENT = MEMORY_PACKAGE + ".S0000";
+
+  @Test
+  void shouldOnlyRegisterComponentsOfTheBasePackages() throws Exception {
+    ApplicationContext applicationContext =
+        ContextScanner.builder().basePackages(MEMORY_PACKAGE).build().scan();
+
+    assertNotNull(applicationContext.get(N0000.class));
+    assertNull(applicationContext.get(SimpleComponent.class));
+  }
+
+  @Test
+  void shouldNotTreatPackageNamePrefixesAsBasePackages() throws Exception {
+    String prefix = MEMORY_PACKAGE.substring(0, MEMORY_PACKAGE.length() - 3);
+
+    ApplicationContext applicationContext =
+        ContextScanner.builder().basePackages(prefix).build().scan();
+
+    assertNull(applicationContext.get(N0000.class));
+  }
+
+  @Test
+  void shouldPostConstructComponentsOfGeneratedWirings() throws Exception {
+    ApplicationContext applicationContext =
+        ContextScanner.builder()
+            .basePackages(WiredStartup.class.getPackageName())
+            .build()
+            .scan();
+
+    assertTrue(applicationContext.get(WiredStartup.class).isInitialized());
+  }
+
+  @Test
+  void shouldScanJarsWithoutIndexNextToIndexedOnes() throws Exception {
+    // the test classes are indexed, the jar is not
+    try (URLClassLoader classLoader = withUnindexedJar("unindexed.jar")) {
+      ApplicationContext applicationContext =
+          scanWith(classLoader, ContextScanner.builder().basePackages(MEMORY_PACKAGE));
+
+      assertNotNull(applicationContext.get(N0000.class));
+      assertNotNull(applicationContext.get(classLoader.loadClass(JAR_COMPONENT)));
+    }
+  }
+
+  @Test
+  void shouldNotScanTheClasspathWhenTheBasePackagesAreIndexed() throws Exception {
+    // ClassGraph is left out, so starting a scan would fail with a NoClassDefFoundError
+    List<URL> urls = new ArrayList<>();
+    for (Path element :
+        ClasspathElements.of(getClass().getClassLoader()).orElseThrow(AssertionError::new)) {
+      String name = element.getFileName().toString();
+      if (Files.isDirectory(element) || name.startsWith("slf4j-api")) {
+        urls.add(element.toUri().toURL());
+      }
+    }
+
+    try (URLClassLoader classLoader =
+        new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader())) {
+      Thread thread = Thread.currentThread();
+      ClassLoader previous = thread.getContextClassLoader();
+      thread.setContextClassLoader(classLoader);
+      try {
+        Class<?> scanner = classLoader.loadClass(ContextScanner.class.getName());
+        Object builder = scanner.getMethod("builder").invoke(null);
+        builder
+            .getClass()
+            .getMethod("basePackages", String[].class)
+            .invoke(builder, (Object) new String[] {MEMORY_PACKAGE});
+        Object built = builder.getClass().getMethod("build").invoke(builder);
+        Object applicationContext = scanner.getMethod("scan").invoke(built);
+
+        Object component =
+            applicationContext
+                .getClass()
+                .getMethod("get", Class.class)
+                .invoke(applicationContext, classLoader.loadClass(N0000.class.getName()));
+        assertNotNull(component);
+      } finally {
+        thread.setContextClassLoader(previous);
+      }
+    }
+  }
+
+  @Test
+  void shouldSkipRejectedJars() throws Exception {
+    try (URLClassLoader classLoader = withUnindexedJar("unindexed.jar")) {
+      ApplicationContext applicationContext =
+          scanWith(
+              classLoader,
+              ContextScanner.builder().basePackages(MEMORY_PACKAGE).rejectJars("unindexed*.jar"));
+
+      assertNotNull(applicationContext.get(N0000.class));
+      assertNull(applicationContext.get(classLoader.loadClass(JAR_COMPONENT)));
+    }
+  }
+
+  @Test
+  void shouldOnlyScanAcceptedJars() throws Exception {
+    try (URLClassLoader classLoader = withUnindexedJar("unindexed.jar")) {
+      ApplicationContext accepted =
+          scanWith(
+              classLoader,
+              ContextScanner.builder().basePackages(MEMORY_PACKAGE).acceptJars("unindexed.jar"));
+      ApplicationContext others =
+          scanWith(
+              classLoader,
+              ContextScanner.builder().basePackages(MEMORY_PACKAGE).acceptJars("other-*.jar"));
+
+      assertNotNull(accepted.get(classLoader.loadClass(JAR_COMPONENT)));
+      assertNull(others.get(classLoader.loadClass(JAR_COMPONENT)));
+    }
+  }
+
+  @Test
+  void shouldDiscardSnapshotOfAnotherClasspath() throws Exception {
+    Path file = Files.createTempFile("toni", ".snapshot");
+    BasicApplicationContext stale = new BasicApplicationContext();
+    stale.register(SimpleComponent.class, EmptyComponent.class);
+    stale.createSnapshot("stale").write(file);
+
+    ApplicationContext applicationContext =
+        ContextScanner.builder().basePackages(MEMORY_PACKAGE).snapshot(file).build().scan();
+
+    assertNull(applicationContext.get(SimpleComponent.class));
+    assertNotNull(applicationContext.get(N0000.class));
+    assertNotEquals("stale", StartupSnapshot.read(file).orElseThrow().fingerprint());
+    Files.delete(file);
+  }
+
+  @Test
+  void shouldFingerprintJarsOfTheContextClassLoader() throws Exception {
+    Path file = Files.createTempFile("toni", ".snapshot");
+    Files.delete(file);
+    ContextScanner.Builder builder =
+        ContextScanner.builder().basePackages(MEMORY_PACKAGE).snapshot(file);
+    builder.build().scan();
+    String fingerprint = StartupSnapshot.read(file).orElseThrow().fingerprint();
+
+    try (URLClassLoader classLoader = withUnindexedJar("unindexed.jar")) {
+      ApplicationContext applicationContext = scanWith(classLoader, builder);
+
+      assertNotNull(applicationContext.get(classLoader.loadClass(JAR_COMPONENT)));
+    }
+    assertNotEquals(fingerprint, StartupSnapshot.read(file).orElseThrow().fingerprint());
+    Files.delete(file);
+  }
+
+  @Test
+  void shouldRejectNegativeThreadCounts() {
+    assertThrows(IllegalArgumentException.class, () -> ContextScanner.builder().threads(-1));
+  }
+
+  /** A class loader with a jar holding the component {@code S0000}, without a component index. */
+  private URLClassLoader withUnindexedJar(String name) throws Exception {
+    Path jar = Files.createTempDirectory("toni").resolve(name);
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry(JAR_COMPONENT.replace('.', '/') + ".class"));
+      out.write(SyntheticGraph.root(0));
+    }
+    return new URLClassLoader(new URL[] {jar.toUri().toURL()}, getClass().getClassLoader());
+  }
+
+  private static ApplicationContext scanWith(
+      ClassLoader classLoader, ContextScanner.Builder builder) throws Exception {
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+    thread.setContextClassLoader(classLoader);
+    try {
+      return builder.build().scan();
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+  }
+}
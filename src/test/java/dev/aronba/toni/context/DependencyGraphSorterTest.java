@@ -0,0 +1,94 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.exception.CircularDependencyException;
+import dev.aronba.toni.context.internal.Dependency;
+import dev.aronba.toni.context.internal.DependencyGraphSorter;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class DependencyGraphSorterTest {
+  private static final int CHAIN_LENGTH = 100_000;
+  // far too small for one frame per node, so a recursive sort would overflow
+  private static final long STACK_SIZE = 256 * 1024;
+
+  /** Template of the chain nodes, every hidden copy is a distinct class. */
+  static final class Node {}
+
+  @Test
+  void shouldSortLongChainsWithoutRecursion() throws Throwable {
+    Class<?>[] chain = defineChain();
+    Map<Class<?>, List<Dependency>> graph = new HashMap<>();
+    graph.put(chain[0], List.of());
+    for (int i = 1; i < chain.length; i++) {
+      graph.put(chain[i], List.of(Dependency.of(chain[i - 1])));
+    }
+
+    List<List<Class<?>>> levels =
+        onSmallStack(() -> new DependencyGraphSorter(graph, Map.of()).sortIntoLevels());
+
+    assertEquals(CHAIN_LENGTH, levels.size());
+    assertEquals(List.of(chain[0]), levels.getFirst());
+    assertEquals(List.of(chain[CHAIN_LENGTH - 1]), levels.getLast());
+  }
+
+  @Test
+  void shouldReportCyclesOfLongChainsWithoutRecursion() throws Throwable {
+    Class<?>[] chain = defineChain();
+    Map<Class<?>, List<Dependency>> graph = new HashMap<>();
+    graph.put(chain[0], List.of(Dependency.of(chain[CHAIN_LENGTH - 1])));
+    for (int i = 1; i < chain.length; i++) {
+      graph.put(chain[i], List.of(Dependency.of(chain[i - 1])));
+    }
+
+    CircularDependencyException exception =
+        assertThrows(
+            CircularDependencyException.class,
+            () -> onSmallStack(() -> new DependencyGraphSorter(graph, Map.of()).sortIntoLevels()));
+    assertEquals(CHAIN_LENGTH + 1, exception.getMessage().split(" -> ").length);
+  }
+
+  private static Class<?>[] defineChain() throws Exception {
+    byte[] bytes;
+    try (InputStream in = Node.class.getResourceAsStream("DependencyGraphSorterTest$Node.class")) {
+      bytes = in.readAllBytes();
+    }
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    Class<?>[] chain = new Class<?>[CHAIN_LENGTH];
+    for (int i = 0; i < CHAIN_LENGTH; i++) {
+      chain[i] = lookup.defineHiddenClass(bytes, false).lookupClass();
+    }
+    return chain;
+  }
+
+  private interface Sort {
+    List<List<Class<?>>> run() throws Exception;
+  }
+
+  private static List<List<Class<?>>> onSmallStack(Sort sort) throws Throwable {
+    AtomicReference<List<List<Class<?>>>> result = new AtomicReference<>();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread thread =
+        new Thread(
+            null,
+            () -> {
+              try {
+                result.set(sort.run());
+              } catch (Throwable t) {
+                failure.set(t);
+              }
+            },
+            "sort",
+            STACK_SIZE);
+    thread.start();
+    thread.join();
+    if (failure.get() != null) throw failure.get();
+    return result.get();
+  }
+}
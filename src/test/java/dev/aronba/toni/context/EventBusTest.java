@@ -0,0 +1,162 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.event.EventBus;
+import dev.aronba.toni.context.exception.EventDeliveryException;
+import dev.aronba.toni.context.exception.PostProcessingException;
+import dev.aronba.toni.context.testClasses.event.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class EventBusTest {
+
+  static Stream<BasicApplicationContext> provideImplementations() {
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldDeliverEventsToListenersInOrder(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        EventBus.class,
+        EventRecorder.class,
+        ShippingListener.class,
+        AuditListener.class,
+        OrderService.class);
+    EventRecorder recorder = applicationContext.get(EventRecorder.class);
+
+    applicationContext.get(OrderService.class).place("42");
+    applicationContext.get(EventBus.class).publish(new OrderCancelled("43"));
+
+    assertEquals(List.of("audit 42", "ship 42", "audit 43", "stop 43"), recorder.getEvents());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldSubscribeListenersOfEarlierRegistrations(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(EventRecorder.class, AuditListener.class);
+    applicationContext.register(EventBus.class);
+    EventBus eventBus = applicationContext.get(EventBus.class);
+
+    eventBus.publish(new OrderPlaced("42"));
+
+    assertEquals(List.of("audit 42"), applicationContext.get(EventRecorder.class).getEvents());
+    assertEquals(0, eventBus.listenerCount(String.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldIgnoreListenersOfPrototypes(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(EventBus.class, EventRecorder.class, PrototypeListener.class);
+    assertNotNull(applicationContext.get(PrototypeListener.class));
+
+    applicationContext.get(EventBus.class).publish(new OrderPlaced("42"));
+
+    assertTrue(applicationContext.get(EventRecorder.class).getEvents().isEmpty());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldPassListenerFailuresToThePublisher(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        EventBus.class, EventRecorder.class, AuditListener.class, RejectingListener.class);
+    EventBus eventBus = applicationContext.get(EventBus.class);
+
+    assertThrows(IllegalStateException.class, () -> eventBus.publish(new OrderCancelled("42")));
+    CompletionException async =
+        assertThrows(
+            CompletionException.class, () -> eventBus.publishAsync(new OrderCancelled("43")).join());
+    assertInstanceOf(IllegalStateException.class, async.getCause());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldDeliverAsyncEventsOnVirtualThreads(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        EventBus.class, EventRecorder.class, AuditListener.class, AsyncListener.class);
+
+    applicationContext.get(EventBus.class).publishAsync(new OrderPlaced("42")).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("audit 42"), applicationContext.get(EventRecorder.class).getEvents());
+    List<Thread> threads = applicationContext.get(AsyncListener.class).getThreads();
+    assertEquals(1, threads.size());
+    assertTrue(threads.getFirst().isVirtual());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRejectListenersWithoutSingleEventParameter(
+      BasicApplicationContext applicationContext) {
+    assertThrows(
+        PostProcessingException.class,
+        () -> applicationContext.register(EventBus.class, InvalidListener.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldOrderListenersOfTheSameOrderByName(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(EventBus.class, EventRecorder.class, InvoiceListener.class);
+    applicationContext.register(BillingListener.class);
+
+    applicationContext.get(EventBus.class).publish(new OrderPlaced("42"));
+
+    assertEquals(
+        List.of("bill 42", "invoice 42"), applicationContext.get(EventRecorder.class).getEvents());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldSubscribeLazyListenersOnceCreated(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(EventBus.class, EventRecorder.class, LazyListener.class);
+    EventBus eventBus = applicationContext.get(EventBus.class);
+
+    eventBus.publish(new OrderPlaced("41"));
+    assertNotNull(applicationContext.get(LazyListener.class));
+    eventBus.publish(new OrderPlaced("42"));
+
+    assertEquals(List.of("lazy 42"), applicationContext.get(EventRecorder.class).getEvents());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldDeliverToInheritedListenersOnce(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(EventBus.class, EventRecorder.class, InheritingListener.class);
+    EventBus eventBus = applicationContext.get(EventBus.class);
+
+    eventBus.publish(new OrderPlaced("42"));
+    eventBus.publish(new OrderCancelled("43"));
+
+    assertEquals(
+        List.of("placed 42", "cancelled 43"),
+        applicationContext.get(EventRecorder.class).getEvents());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldKeepCauseOfCheckedListenerFailures(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(EventBus.class, CheckedFailingListener.class);
+
+    EventDeliveryException exception =
+        assertThrows(
+            EventDeliveryException.class,
+            () -> applicationContext.get(EventBus.class).publish(new OrderPlaced("42")));
+    assertInstanceOf(IOException.class, exception.getCause());
+  }
+}
@@ -0,0 +1,100 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.core.ScopedApplicationContext;
+import dev.aronba.toni.context.internal.InstanceFactory;
+import dev.aronba.toni.context.internal.ResolutionPlan;
+import dev.aronba.toni.context.testClasses.*;
+import dev.aronba.toni.context.testClasses.memory.SyntheticGraph;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class FreezeTest {
+
+  static Stream<BasicApplicationContext> provideImplementations() {
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldKeepResolvingComponentsWhenFrozen(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        NestedPrototypeComponent.class,
+        PrototypeComponent.class,
+        LazyComponent.class,
+        ScopedComponent.class,
+        EmptyComponent.class);
+
+    applicationContext.freeze();
+
+    assertTrue(applicationContext.isFrozen());
+    assertNotNull(applicationContext.get(EmptyComponent.class));
+    assertNotNull(applicationContext.get(LazyComponent.class));
+    NestedPrototypeComponent first = applicationContext.get(NestedPrototypeComponent.class);
+    NestedPrototypeComponent second = applicationContext.get(NestedPrototypeComponent.class);
+    assertNotSame(first, second);
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      assertSame(scope.get(ScopedComponent.class), scope.get(ScopedComponent.class));
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRejectRegistrationsWhenFrozen(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(EmptyComponent.class);
+    applicationContext.freeze();
+
+    assertThrows(
+        IllegalStateException.class, () -> applicationContext.register(SimpleComponent.class));
+    assertThrows(IllegalStateException.class, () -> applicationContext.createSnapshot("any"));
+  }
+
+  @Test
+  void shouldReleaseRegistrationMetadataWhenFrozen() throws Exception {
+    InspectableContext applicationContext = new InspectableContext();
+    applicationContext.register(
+        NestedPrototypeComponent.class,
+        PrototypeComponent.class,
+        LazyComponent.class,
+        EmptyComponent.class);
+    ResolutionPlan plan =
+        applicationContext.getInstanceFactory().getPlan(NestedPrototypeComponent.class);
+    assertEquals(2, plan.getConstructorParameterTypes().length);
+
+    applicationContext.freeze();
+
+    assertNull(applicationContext.getDependencyGraphBuilder());
+    assertNull(applicationContext.getDependencyGraphSorter());
+    InstanceFactory instanceFactory = applicationContext.getInstanceFactory();
+    assertTrue(instanceFactory.getPlannedClasses().isEmpty());
+    assertNull(instanceFactory.getPlan(NestedPrototypeComponent.class));
+    assertNull(instanceFactory.getLazySingleton(LazyComponent.class));
+    // the plan is still bound and creates prototypes, without its reflected parameters
+    assertEquals(0, plan.getConstructorParameterTypes().length);
+    assertNotNull(applicationContext.get(NestedPrototypeComponent.class));
+    assertNotNull(applicationContext.get(LazyComponent.class));
+  }
+
+  @Test
+  void shouldDropTheDependencyGraphOfLargeGraphsWhenFrozen() throws Exception {
+    Class<?>[] components = SyntheticGraph.define(10_000);
+    InspectableContext applicationContext = new InspectableContext();
+    applicationContext.register(components);
+    assertEquals(
+        components.length,
+        applicationContext.getDependencyGraphBuilder().getDependencyGraph().size());
+
+    applicationContext.freeze();
+
+    assertNull(applicationContext.getDependencyGraphBuilder());
+    assertTrue(applicationContext.getInstanceFactory().getPlannedClasses().isEmpty());
+    assertNotNull(applicationContext.get(components[components.length - 1]));
+  }
+}
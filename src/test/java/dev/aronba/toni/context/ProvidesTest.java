@@ -0,0 +1,75 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.exception.InstatitationException;
+import dev.aronba.toni.context.testClasses.EmptyComponent;
+import dev.aronba.toni.context.testClasses.provides.*;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ProvidesTest {
+
+  static Stream<ApplicationContext> provideImplementations() {
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldInjectProvidedInstances(ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(
+        ConnectionUser.class, ClientConfiguration.class, EmptyComponent.class);
+
+    ConnectionUser user = applicationContext.get(ConnectionUser.class);
+    assertSame(applicationContext.get(ExternalClient.class), user.getApi());
+    assertEquals("http://localhost", user.getApi().endpoint());
+    assertSame(applicationContext.get(ExternalConnection.class), user.getConnection());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldStartAsyncFactoriesWithoutWaitingForEachOther(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        ConnectionUser.class, ClientConfiguration.class, EmptyComponent.class);
+
+    ConnectionUser user = applicationContext.get(ConnectionUser.class);
+    assertEquals("primary", user.getConnection().getName());
+    assertEquals("cache", user.getCache().getConnection().getName());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCreateAsyncInstancesWithoutDependents(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(ClientConfiguration.class, EmptyComponent.class);
+
+    assertNotNull(applicationContext.get(ExternalConnection.class));
+    assertNotNull(applicationContext.get(ExternalCache.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldFailWhenAsyncFactoryFails(ApplicationContext applicationContext) {
+    InstatitationException exception =
+        assertThrows(
+            InstatitationException.class,
+            () -> applicationContext.register(FailingConfiguration.class));
+    assertTrue(exception.getMessage().contains("Connection refused"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldWaitForOtherAsyncFactoriesBeforeFailing(ApplicationContext applicationContext) {
+    assertThrows(
+        InstatitationException.class,
+        () -> applicationContext.register(FailingConfiguration.class, SlowConfiguration.class));
+
+    assertTrue(SlowConfiguration.lastCache().isDone());
+    assertNull(applicationContext.get(ExternalCache.class));
+  }
+}
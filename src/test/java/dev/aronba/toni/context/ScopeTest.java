@@ -0,0 +1,264 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.core.ScopedApplicationContext;
+import dev.aronba.toni.context.exception.InstatitationException;
+import dev.aronba.toni.context.exception.ScopeNotActiveException;
+import dev.aronba.toni.context.exception.UnsatisfiedDependencyException;
+import dev.aronba.toni.context.processor.PostConstructPostProcessor;
+import dev.aronba.toni.context.testClasses.*;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ScopeTest {
+
+  static Stream<ApplicationContext> provideImplementations() {
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCreateOneInstancePerScope(ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(ScopedComponent.class, EmptyComponent.class);
+
+    try (ScopedApplicationContext first = applicationContext.createScope();
+        ScopedApplicationContext second = applicationContext.createScope()) {
+      ScopedComponent scopedComponent = first.get(ScopedComponent.class);
+      assertNotNull(scopedComponent);
+      assertSame(scopedComponent, first.get(ScopedComponent.class));
+      assertNotSame(scopedComponent, second.get(ScopedComponent.class));
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldFallBackToParentForSingletons(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(ScopedComponent.class, EmptyComponent.class);
+
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      EmptyComponent emptyComponent = applicationContext.get(EmptyComponent.class);
+      assertSame(emptyComponent, scope.get(EmptyComponent.class));
+      assertSame(emptyComponent, scope.get(ScopedComponent.class).getEmptyComponent());
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldInjectInstancesOfTheSameScope(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        ScopedDependentComponent.class, ScopedComponent.class, EmptyComponent.class);
+
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      assertSame(
+          scope.get(ScopedComponent.class),
+          scope.get(ScopedDependentComponent.class).getScopedComponent());
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldPostProcessScopedInstances(ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(
+        ScopedComponent.class, EmptyComponent.class, PostConstructPostProcessor.class);
+
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      assertTrue(scope.get(ScopedComponent.class).isInitialized());
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRejectScopedComponentOutsideOfScope(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(ScopedComponent.class, EmptyComponent.class);
+
+    assertThrows(ScopeNotActiveException.class, () -> applicationContext.get(ScopedComponent.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRejectScopedComponentAfterClose(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(ScopedComponent.class, EmptyComponent.class);
+
+    ScopedApplicationContext scope = applicationContext.createScope();
+    scope.get(ScopedComponent.class);
+    scope.close();
+
+    assertTrue(scope.isClosed());
+    assertThrows(ScopeNotActiveException.class, () -> scope.get(ScopedComponent.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldResolveScopedComponentsInsideRunInScope(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        ScopedDependentComponent.class, ScopedComponent.class, EmptyComponent.class);
+
+    AtomicReference<ScopedComponent> first = new AtomicReference<>();
+    AtomicReference<ScopedComponent> second = new AtomicReference<>();
+    applicationContext.runInScope(
+        () -> {
+          first.set(applicationContext.get(ScopedComponent.class));
+          assertSame(
+              first.get(), applicationContext.get(ScopedDependentComponent.class).getScopedComponent());
+        });
+    applicationContext.runInScope(() -> second.set(applicationContext.get(ScopedComponent.class)));
+
+    assertNotNull(first.get());
+    assertNotSame(first.get(), second.get());
+    assertThrows(ScopeNotActiveException.class, () -> applicationContext.get(ScopedComponent.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldShareScopedComponentsWithForkedSubtasks(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(ScopedComponent.class, EmptyComponent.class);
+
+    AtomicReference<ScopedComponent> parent = new AtomicReference<>();
+    AtomicReference<ScopedComponent> child = new AtomicReference<>();
+    applicationContext.runInScope(
+        () -> {
+          parent.set(applicationContext.get(ScopedComponent.class));
+          try (var tasks = new StructuredTaskScope.ShutdownOnFailure()) {
+            Subtask<ScopedComponent> subtask =
+                tasks.fork(() -> applicationContext.get(ScopedComponent.class));
+            tasks.join().throwIfFailed();
+            child.set(subtask.get());
+          } catch (Exception e) {
+            throw new AssertionError(e);
+          }
+        });
+
+    assertNotNull(parent.get());
+    assertSame(parent.get(), child.get());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldBindChildContextInRunInScope(ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(ScopedComponent.class, EmptyComponent.class);
+
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      ScopedComponent scopedComponent = scope.get(ScopedComponent.class);
+      scope.runInScope(
+          () -> assertSame(scopedComponent, applicationContext.get(ScopedComponent.class)));
+      assertFalse(scope.isClosed());
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldProvideScopedComponentOfCurrentScope(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        ScopedProviderComponent.class, ScopedComponent.class, EmptyComponent.class);
+    ScopedProviderComponent providerComponent =
+        applicationContext.get(ScopedProviderComponent.class);
+
+    applicationContext.runInScope(
+        () ->
+            assertSame(
+                applicationContext.get(ScopedComponent.class),
+                providerComponent.getScopedProvider().get()));
+    assertThrows(
+        ScopeNotActiveException.class, () -> providerComponent.getScopedProvider().get());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldBindProviderToScopeThatCreatedIt(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(
+        ScopedProviderConsumer.class, ScopedComponent.class, EmptyComponent.class);
+
+    try (ScopedApplicationContext first = applicationContext.createScope();
+        ScopedApplicationContext second = applicationContext.createScope()) {
+      ScopedProviderConsumer consumer = first.get(ScopedProviderConsumer.class);
+      ScopedComponent scopedComponent = first.get(ScopedComponent.class);
+
+      assertSame(scopedComponent, consumer.getScopedProvider().get());
+      second.runInScope(() -> assertSame(scopedComponent, consumer.getScopedProvider().get()));
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRejectSingletonDependingOnScopedComponent(ApplicationContext applicationContext) {
+    assertThrows(
+        UnsatisfiedDependencyException.class,
+        () ->
+            applicationContext.register(
+                ScopedSingletonComponent.class, ScopedComponent.class, EmptyComponent.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRejectRegistrationOnScope(ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(ScopedComponent.class, EmptyComponent.class);
+
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      assertThrows(IllegalStateException.class, () -> scope.register(PrototypeComponent.class));
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldThrowWhenScopedComponentFails(ApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(FailingScopedComponent.class);
+
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      InstatitationException exception =
+          assertThrows(
+              InstatitationException.class, () -> scope.get(FailingScopedComponent.class));
+      assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldThrowWhenPrototypeFails(ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(FailingPrototypeComponent.class);
+
+    FailingPrototypeComponent.failing = true;
+    try {
+      InstatitationException exception =
+          assertThrows(
+              InstatitationException.class,
+              () -> applicationContext.get(FailingPrototypeComponent.class));
+      assertInstanceOf(IllegalStateException.class, exception.getCause());
+    } finally {
+      FailingPrototypeComponent.failing = false;
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCreatePrototypeWithScopedDependencyOnlyInScope(
+      ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(
+        ScopedPrototypeComponent.class, ScopedComponent.class, EmptyComponent.class);
+
+    try (ScopedApplicationContext scope = applicationContext.createScope()) {
+      assertSame(
+          scope.get(ScopedComponent.class),
+          scope.get(ScopedPrototypeComponent.class).getScopedComponent());
+    }
+    assertThrows(
+        ScopeNotActiveException.class,
+        () -> applicationContext.get(ScopedPrototypeComponent.class));
+  }
+}
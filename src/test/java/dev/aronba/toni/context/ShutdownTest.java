@@ -0,0 +1,74 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.testClasses.shutdown.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ShutdownTest {
+
+  static Stream<BasicApplicationContext> provideImplementations() {
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldDestroyInReverseDependencyOrder(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(ShutdownRecorder.class, PooledResource.class, ResourceUser.class);
+    ShutdownRecorder recorder = applicationContext.get(ShutdownRecorder.class);
+
+    applicationContext.close();
+
+    assertEquals(List.of("user flushed", "pool closed"), recorder.getEvents());
+    assertFalse(applicationContext.get(PooledResource.class).isOpen());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldDestroyIndependentComponentsInParallel(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.setShutdownTimeout(Duration.ofSeconds(5));
+    applicationContext.register(
+        ShutdownRecorder.class, FirstDrainingComponent.class, SecondDrainingComponent.class);
+    ShutdownRecorder recorder = applicationContext.get(ShutdownRecorder.class);
+
+    applicationContext.close();
+
+    assertEquals(2, recorder.getEvents().size());
+    assertTrue(recorder.getEvents().containsAll(List.of("first drained", "second drained")));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldNotWaitLongerThanTheTimeoutForOneComponent(
+      BasicApplicationContext applicationContext) throws Exception {
+    applicationContext.setShutdownTimeout(Duration.ofMillis(100));
+    applicationContext.register(
+        ShutdownRecorder.class, PooledResource.class, HangingComponent.class);
+
+    long start = System.nanoTime();
+    applicationContext.close();
+
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+    assertFalse(applicationContext.get(PooledResource.class).isOpen());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCloseOnlyOnce(BasicApplicationContext applicationContext) throws Exception {
+    applicationContext.register(ShutdownRecorder.class, PooledResource.class);
+    ShutdownRecorder recorder = applicationContext.get(ShutdownRecorder.class);
+
+    applicationContext.close();
+    applicationContext.close();
+
+    assertEquals(List.of("pool closed"), recorder.getEvents());
+  }
+}
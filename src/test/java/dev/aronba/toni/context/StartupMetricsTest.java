@@ -0,0 +1,73 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.core.StartupMetrics;
+import dev.aronba.toni.context.processor.PostConstructPostProcessor;
+import dev.aronba.toni.context.testClasses.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class StartupMetricsTest {
+
+  static Stream<ApplicationContext> provideImplementations() {
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRecordDurationPerComponent(ApplicationContext applicationContext) throws Exception {
+    applicationContext.register(
+        ComplexComponent.class,
+        SimpleComponent.class,
+        EmptyComponent.class,
+        PostConstructPostProcessor.class);
+
+    StartupMetrics metrics = applicationContext.getStartupMetrics();
+    assertTrue(metrics.getGraphBuildingDuration().toNanos() > 0);
+    assertTrue(metrics.getSortingDuration().toNanos() > 0);
+    assertEquals(4, metrics.getInstantiationDurations().size());
+    assertTrue(metrics.getInstantiationDuration(ComplexComponent.class).toNanos() > 0);
+    assertTrue(metrics.getPostProcessingDuration(ComplexComponent.class).toNanos() > 0);
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldEmitFlightRecorderEvents(ApplicationContext applicationContext) throws Exception {
+    Path file = Files.createTempFile("toni", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("dev.aronba.toni.ComponentCreation");
+      recording.enable("dev.aronba.toni.PrototypeCreation");
+      recording.start();
+      applicationContext.register(
+          NestedPrototypeComponent.class, PrototypeComponent.class, EmptyComponent.class);
+      applicationContext.get(NestedPrototypeComponent.class);
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Files.delete(file);
+    assertEquals(
+        3,
+        events.stream()
+            .filter(e -> e.getEventType().getName().equals("dev.aronba.toni.ComponentCreation"))
+            .count());
+    // the nested prototype while registering, then the requested prototype and its nested one
+    assertEquals(
+        3,
+        events.stream()
+            .filter(e -> e.getEventType().getName().equals("dev.aronba.toni.PrototypeCreation"))
+            .count());
+  }
+}
@@ -0,0 +1,138 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.internal.StartupSnapshot;
+import dev.aronba.toni.context.testClasses.*;
+import dev.aronba.toni.context.testClasses.provides.ClientConfiguration;
+import dev.aronba.toni.context.testClasses.provides.ConnectionUser;
+import dev.aronba.toni.context.testClasses.provides.ExternalClient;
+import dev.aronba.toni.context.testClasses.provides.GreetingConfiguration;
+import dev.aronba.toni.context.testClasses.provides.ProvidedGreeting;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class StartupSnapshotTest {
+
+  static Stream<BasicApplicationContext> provideImplementations() {
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldStartFromSnapshot(BasicApplicationContext applicationContext) throws Exception {
+    BasicApplicationContext original = new BasicApplicationContext();
+    original.register(
+        ComplexComponent.class,
+        SimpleComponent.class,
+        EmptyComponent.class,
+        ServiceInterface.class,
+        ServiceInterfaceImpl.class,
+        InterfaceDependentComponent.class,
+        PrototypeComponent.class);
+
+    Path file = Files.createTempFile("toni", ".snapshot");
+    original.createSnapshot("fingerprint").write(file);
+    StartupSnapshot snapshot = StartupSnapshot.read(file).orElseThrow();
+    Files.delete(file);
+
+    assertEquals("fingerprint", snapshot.fingerprint());
+    assertEquals(
+        List.of(SimpleComponent.class.getName(), EmptyComponent.class.getName()),
+        snapshot.constructors().get(ComplexComponent.class.getName()));
+
+    applicationContext.register(snapshot);
+
+    ComplexComponent complexComponent = applicationContext.get(ComplexComponent.class);
+    assertNotNull(complexComponent.getSimpleComponent());
+    assertSame(applicationContext.get(EmptyComponent.class), complexComponent.getEmptyComponent());
+    assertNotSame(original.get(EmptyComponent.class), complexComponent.getEmptyComponent());
+
+    InterfaceDependentComponent interfaceDependentComponent =
+        applicationContext.get(InterfaceDependentComponent.class);
+    interfaceDependentComponent.run();
+    assertEquals(10, interfaceDependentComponent.check);
+    assertNotSame(
+        applicationContext.get(PrototypeComponent.class),
+        applicationContext.get(PrototypeComponent.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRecreateProvidedInstancesFromSnapshot(BasicApplicationContext applicationContext)
+      throws Exception {
+    BasicApplicationContext original = new BasicApplicationContext();
+    original.register(ConnectionUser.class, ClientConfiguration.class, EmptyComponent.class);
+
+    applicationContext.register(original.createSnapshot("fingerprint"));
+
+    ConnectionUser user = applicationContext.get(ConnectionUser.class);
+    assertSame(applicationContext.get(ExternalClient.class), user.getApi());
+    assertNotSame(original.get(ExternalClient.class), user.getApi());
+    assertEquals("cache", user.getCache().getConnection().getName());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRecreateInstancesOfStaticFactoryMethodsFromSnapshot(
+      BasicApplicationContext applicationContext) throws Exception {
+    BasicApplicationContext original = new BasicApplicationContext();
+    original.register(GreetingConfiguration.class, EmptyComponent.class);
+    Path file = Files.createTempFile("toni", ".snapshot");
+    original.createSnapshot("fingerprint").write(file);
+
+    applicationContext.register(StartupSnapshot.read(file).orElseThrow());
+
+    assertEquals("configured", applicationContext.get(ProvidedGreeting.class).getText());
+    Files.delete(file);
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldRegisterDependentsOfRestoredComponents(BasicApplicationContext applicationContext)
+      throws Exception {
+    BasicApplicationContext original = new BasicApplicationContext();
+    original.register(SimpleComponent.class, EmptyComponent.class);
+    applicationContext.register(original.createSnapshot("fingerprint"));
+
+    applicationContext.register(ComplexComponent.class);
+
+    ComplexComponent complexComponent = applicationContext.get(ComplexComponent.class);
+    assertSame(applicationContext.get(SimpleComponent.class), complexComponent.getSimpleComponent());
+    assertSame(applicationContext.get(EmptyComponent.class), complexComponent.getEmptyComponent());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldSnapshotRestoredComponents(BasicApplicationContext applicationContext)
+      throws Exception {
+    BasicApplicationContext original = new BasicApplicationContext();
+    original.register(
+        ComplexComponent.class,
+        SimpleComponent.class,
+        EmptyComponent.class,
+        ServiceInterface.class,
+        ServiceInterfaceImpl.class,
+        InterfaceDependentComponent.class,
+        ConnectionUser.class,
+        ClientConfiguration.class);
+    StartupSnapshot snapshot = original.createSnapshot("fingerprint");
+
+    applicationContext.register(snapshot);
+
+    assertEquals(snapshot, applicationContext.createSnapshot("fingerprint"));
+  }
+
+  @Test
+  void shouldIgnoreMissingSnapshot() throws Exception {
+    assertEquals(Optional.empty(), StartupSnapshot.read(Path.of("does-not-exist.snapshot")));
+  }
+}
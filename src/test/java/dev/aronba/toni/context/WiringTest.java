@@ -0,0 +1,93 @@
+package dev.aronba.toni.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.core.ParallelApplicationContext;
+import dev.aronba.toni.context.processor.PostConstructPostProcessor;
+import dev.aronba.toni.context.testClasses.WiredServiceClient;
+import dev.aronba.toni.context.testClasses.wiring.*;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class WiringTest {
+
+  static Stream<BasicApplicationContext> provideImplementations() {
+    return Stream.of(new BasicApplicationContext(), new ParallelApplicationContext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCreateComponentsWithGeneratedWiring(BasicApplicationContext applicationContext) {
+    WiredComponentsWiring wiring = new WiredComponentsWiring();
+    applicationContext.register(wiring);
+
+    WiredService service = applicationContext.get(WiredService.class);
+    assertSame(wiring.wiredService(), service);
+    assertSame(applicationContext.get(InMemoryWiredRepository.class), service.getRepository());
+    assertEquals(
+        List.of(FirstWiredPlugin.class, SecondWiredPlugin.class),
+        service.getPlugins().stream().map(Object::getClass).toList());
+  }
+
+  @Test
+  void shouldListComponentsInDependencyOrder() {
+    List<Class<?>> components = new WiredComponentsWiring().components();
+
+    assertFalse(components.contains(WiredComponents.class));
+    assertTrue(
+        components.indexOf(InMemoryWiredRepository.class)
+            < components.indexOf(WiredService.class));
+    assertTrue(components.indexOf(WiredRequest.class) < components.indexOf(WiredService.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldCreatePrototypesAndLazyComponentsOnDemand(
+      BasicApplicationContext applicationContext) throws Exception {
+    applicationContext.register(PostConstructPostProcessor.class);
+    int auditCreations = WiredAudit.CREATIONS.get();
+    applicationContext.register(new WiredComponentsWiring());
+    WiredService service = applicationContext.get(WiredService.class);
+
+    WiredRequest first = service.getRequests().get();
+    assertNotSame(first, service.getRequests().get());
+    assertTrue(first.isInitialized());
+    assertTrue(applicationContext.get(WiredRequest.class).isInitialized());
+
+    assertEquals(auditCreations, WiredAudit.CREATIONS.get());
+    assertSame(service.getAudit().get(), applicationContext.get(WiredAudit.class));
+    assertEquals(auditCreations + 1, WiredAudit.CREATIONS.get());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldInjectWiredComponentsIntoLaterRegistrations(
+      BasicApplicationContext applicationContext) throws Exception {
+    applicationContext.register(new WiredComponentsWiring());
+    applicationContext.register(WiredServiceClient.class);
+
+    assertSame(
+        applicationContext.get(WiredService.class),
+        applicationContext.get(WiredServiceClient.class).getService());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideImplementations")
+  void shouldInjectTheSameSetAsReflectiveWiring(BasicApplicationContext applicationContext)
+      throws Exception {
+    applicationContext.register(new WiredComponentsWiring());
+    BasicApplicationContext reflective = new BasicApplicationContext();
+    reflective.register(WiredPluginSet.class, FirstWiredPlugin.class, SecondWiredPlugin.class);
+
+    Set<WiredPlugin> wired = applicationContext.get(WiredPluginSet.class).getPlugins();
+    assertEquals(reflective.get(WiredPluginSet.class).getPlugins().getClass(), wired.getClass());
+    assertEquals(
+        List.of(FirstWiredPlugin.class, SecondWiredPlugin.class),
+        wired.stream().map(Object::getClass).toList());
+  }
+}
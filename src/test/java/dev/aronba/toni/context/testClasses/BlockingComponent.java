@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/** Keeps its registration running until {@link #RELEASE} is counted down. */
+@Component
+public class BlockingComponent {
+  public static volatile CountDownLatch STARTED = new CountDownLatch(1);
+  public static volatile CountDownLatch RELEASE = new CountDownLatch(1);
+
+  public BlockingComponent() throws InterruptedException {
+    STARTED.countDown();
+    RELEASE.await(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,13 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class ConstructionCountingComponent {
+  public static final AtomicInteger CONSTRUCTIONS = new AtomicInteger();
+
+  public ConstructionCountingComponent() {
+    CONSTRUCTIONS.incrementAndGet();
+  }
+}
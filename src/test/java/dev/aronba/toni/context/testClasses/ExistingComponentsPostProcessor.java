@@ -0,0 +1,14 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostProcessor;
+
+@Component
+@PostProcessor
+public class ExistingComponentsPostProcessor extends EmptyComponentPostProcessor {
+
+  @Override
+  public boolean processExistingComponents() {
+    return true;
+  }
+}
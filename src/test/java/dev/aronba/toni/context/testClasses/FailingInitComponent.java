@@ -0,0 +1,13 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+
+@Component
+public class FailingInitComponent {
+
+  @PostConstruct
+  void init() {
+    throw new IllegalStateException("Connection refused");
+  }
+}
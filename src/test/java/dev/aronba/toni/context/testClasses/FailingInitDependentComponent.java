@@ -0,0 +1,20 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+
+@Component
+public class FailingInitDependentComponent {
+  private volatile boolean initialized = false;
+
+  public FailingInitDependentComponent(FailingInitComponent failingInitComponent) {}
+
+  @PostConstruct
+  void init() {
+    initialized = true;
+  }
+
+  public boolean isInitialized() {
+    return initialized;
+  }
+}
@@ -0,0 +1,11 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.LAZY)
+public class FailingLazyComponent {
+  public FailingLazyComponent() {
+    throw new IllegalStateException("Lazy component failed");
+  }
+}
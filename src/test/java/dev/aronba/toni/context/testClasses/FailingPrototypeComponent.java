@@ -0,0 +1,14 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.PROTOTYPE)
+public class FailingPrototypeComponent {
+  /** Set after registration, so only the instances created by later lookups fail. */
+  public static volatile boolean failing = false;
+
+  public FailingPrototypeComponent() {
+    if (failing) throw new IllegalStateException("Prototype component failed");
+  }
+}
@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Provider;
+
+@Component
+public class FailingProviderComponent {
+  private final Provider<FailingPrototypeComponent> failingProvider;
+
+  public FailingProviderComponent(Provider<FailingPrototypeComponent> failingProvider) {
+    this.failingProvider = failingProvider;
+  }
+
+  public Provider<FailingPrototypeComponent> getFailingProvider() {
+    return failingProvider;
+  }
+}
@@ -0,0 +1,11 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.SCOPED)
+public class FailingScopedComponent {
+  public FailingScopedComponent() {
+    throw new IllegalStateException("Scoped component failed");
+  }
+}
@@ -0,0 +1,8 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Order;
+
+@Component
+@Order(1)
+public class FirstStep implements PipelineStep {}
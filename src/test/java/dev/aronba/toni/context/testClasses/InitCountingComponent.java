@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+
+@Component
+public class InitCountingComponent {
+  private int initCount = 0;
+
+  @PostConstruct
+  void init() {
+    initCount++;
+  }
+
+  public int getInitCount() {
+    return initCount;
+  }
+}
@@ -0,0 +1,29 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Inject;
+
+@Component
+public class InjectAnnotatedComponent {
+  private final EmptyComponent emptyComponent;
+  private final SimpleComponent simpleComponent;
+
+  @Inject
+  public InjectAnnotatedComponent(EmptyComponent emptyComponent) {
+    this.emptyComponent = emptyComponent;
+    this.simpleComponent = null;
+  }
+
+  public InjectAnnotatedComponent(EmptyComponent emptyComponent, SimpleComponent simpleComponent) {
+    this.emptyComponent = emptyComponent;
+    this.simpleComponent = simpleComponent;
+  }
+
+  public EmptyComponent getEmptyComponent() {
+    return emptyComponent;
+  }
+
+  public SimpleComponent getSimpleComponent() {
+    return simpleComponent;
+  }
+}
@@ -0,0 +1,22 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.core.BasicApplicationContext;
+import dev.aronba.toni.context.internal.DependencyGraphBuilder;
+import dev.aronba.toni.context.internal.DependencyGraphSorter;
+import dev.aronba.toni.context.internal.InstanceFactory;
+
+/** Exposes the registration state of the context, to check what {@link #freeze()} releases. */
+public class InspectableContext extends BasicApplicationContext {
+
+  public DependencyGraphBuilder getDependencyGraphBuilder() {
+    return dependencyGraphBuilder;
+  }
+
+  public DependencyGraphSorter getDependencyGraphSorter() {
+    return dependencyGraphSorter;
+  }
+
+  public InstanceFactory getInstanceFactory() {
+    return instanceFactory;
+  }
+}
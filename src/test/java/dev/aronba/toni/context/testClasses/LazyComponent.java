@@ -0,0 +1,35 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+import dev.aronba.toni.context.core.Lifetime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component(Lifetime.LAZY)
+public class LazyComponent {
+  public static final AtomicInteger CREATED = new AtomicInteger();
+  private final EmptyComponent emptyComponent;
+  private boolean initialized = false;
+
+  public LazyComponent(EmptyComponent emptyComponent) {
+    this.emptyComponent = emptyComponent;
+    CREATED.incrementAndGet();
+    try {
+      Thread.sleep(20);
+    } catch (InterruptedException ignore) {
+    }
+  }
+
+  @PostConstruct
+  void init() {
+    initialized = true;
+  }
+
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  public EmptyComponent getEmptyComponent() {
+    return emptyComponent;
+  }
+}
@@ -0,0 +1,16 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+
+@Component
+public class LazyDependentComponent {
+  private final LazyComponent lazyComponent;
+
+  public LazyDependentComponent(LazyComponent lazyComponent) {
+    this.lazyComponent = lazyComponent;
+  }
+
+  public LazyComponent getLazyComponent() {
+    return lazyComponent;
+  }
+}
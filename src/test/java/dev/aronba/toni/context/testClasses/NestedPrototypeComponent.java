@@ -0,0 +1,24 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.PROTOTYPE)
+public class NestedPrototypeComponent {
+  private final PrototypeComponent prototypeComponent;
+  private final EmptyComponent emptyComponent;
+
+  public NestedPrototypeComponent(
+      PrototypeComponent prototypeComponent, EmptyComponent emptyComponent) {
+    this.prototypeComponent = prototypeComponent;
+    this.emptyComponent = emptyComponent;
+  }
+
+  public PrototypeComponent getPrototypeComponent() {
+    return prototypeComponent;
+  }
+
+  public EmptyComponent getEmptyComponent() {
+    return emptyComponent;
+  }
+}
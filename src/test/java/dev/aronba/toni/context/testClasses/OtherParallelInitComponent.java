@@ -0,0 +1,14 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class OtherParallelInitComponent {
+
+  @PostConstruct
+  void init() throws Exception {
+    ParallelInitComponent.BARRIER.await(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+/** Only finishes initializing while {@link OtherParallelInitComponent} is initializing as well. */
+@Component
+public class ParallelInitComponent {
+  public static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+
+  @PostConstruct
+  void init() throws Exception {
+    BARRIER.await(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,31 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class Pipeline {
+  private final List<PipelineStep> stepList;
+  private final Set<PipelineStep> stepSet;
+  private final PipelineStep[] stepArray;
+
+  public Pipeline(
+      List<PipelineStep> stepList, Set<PipelineStep> stepSet, PipelineStep[] stepArray) {
+    this.stepList = stepList;
+    this.stepSet = stepSet;
+    this.stepArray = stepArray;
+  }
+
+  public List<PipelineStep> getStepList() {
+    return stepList;
+  }
+
+  public Set<PipelineStep> getStepSet() {
+    return stepSet;
+  }
+
+  public PipelineStep[] getStepArray() {
+    return stepArray;
+  }
+}
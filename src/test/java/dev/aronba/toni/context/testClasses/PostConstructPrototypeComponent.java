@@ -0,0 +1,19 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.PROTOTYPE)
+public class PostConstructPrototypeComponent {
+  private boolean initialized = false;
+
+  @PostConstruct
+  void init() {
+    initialized = true;
+  }
+
+  public boolean isInitialized() {
+    return initialized;
+  }
+}
@@ -0,0 +1,25 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Provider;
+import java.util.function.Supplier;
+
+@Component
+public class ProviderComponent {
+  private final Provider<PrototypeComponent> prototypeProvider;
+  private final Supplier<EmptyComponent> emptySupplier;
+
+  public ProviderComponent(
+      Provider<PrototypeComponent> prototypeProvider, Supplier<EmptyComponent> emptySupplier) {
+    this.prototypeProvider = prototypeProvider;
+    this.emptySupplier = emptySupplier;
+  }
+
+  public Provider<PrototypeComponent> getPrototypeProvider() {
+    return prototypeProvider;
+  }
+
+  public Supplier<EmptyComponent> getEmptySupplier() {
+    return emptySupplier;
+  }
+}
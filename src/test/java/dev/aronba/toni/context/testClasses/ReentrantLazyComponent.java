@@ -0,0 +1,15 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Requested again by {@link ReentrantLazyPostProcessor} while it is being post-processed. */
+@Component(Lifetime.LAZY)
+public class ReentrantLazyComponent {
+  public static final AtomicInteger CREATED = new AtomicInteger();
+
+  public ReentrantLazyComponent() {
+    CREATED.incrementAndGet();
+  }
+}
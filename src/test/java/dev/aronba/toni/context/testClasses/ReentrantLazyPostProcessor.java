@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.PostProcessor;
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.processor.ComponentPostProcessor;
+
+@PostProcessor
+public class ReentrantLazyPostProcessor implements ComponentPostProcessor {
+  @Override
+  public boolean supports(Class<?> type) {
+    return type == ReentrantLazyComponent.class;
+  }
+
+  @Override
+  public void postProcess(Class<?> type, Object instance, ApplicationContext applicationContext) {
+    applicationContext.get(ReentrantLazyComponent.class);
+  }
+}
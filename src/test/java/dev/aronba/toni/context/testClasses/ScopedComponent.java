@@ -0,0 +1,28 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.SCOPED)
+public class ScopedComponent {
+  private final EmptyComponent emptyComponent;
+  private boolean initialized = false;
+
+  public ScopedComponent(EmptyComponent emptyComponent) {
+    this.emptyComponent = emptyComponent;
+  }
+
+  @PostConstruct
+  void init() {
+    initialized = true;
+  }
+
+  public EmptyComponent getEmptyComponent() {
+    return emptyComponent;
+  }
+
+  public boolean isInitialized() {
+    return initialized;
+  }
+}
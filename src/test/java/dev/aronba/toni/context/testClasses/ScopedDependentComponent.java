@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.SCOPED)
+public class ScopedDependentComponent {
+  private final ScopedComponent scopedComponent;
+
+  public ScopedDependentComponent(ScopedComponent scopedComponent) {
+    this.scopedComponent = scopedComponent;
+  }
+
+  public ScopedComponent getScopedComponent() {
+    return scopedComponent;
+  }
+}
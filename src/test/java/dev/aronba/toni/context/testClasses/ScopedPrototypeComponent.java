@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.PROTOTYPE)
+public class ScopedPrototypeComponent {
+  private final ScopedComponent scopedComponent;
+
+  public ScopedPrototypeComponent(ScopedComponent scopedComponent) {
+    this.scopedComponent = scopedComponent;
+  }
+
+  public ScopedComponent getScopedComponent() {
+    return scopedComponent;
+  }
+}
@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Provider;
+
+// a singleton may reach scoped components through a provider, which resolves the current scope
+@Component
+public class ScopedProviderComponent {
+  private final Provider<ScopedComponent> scopedProvider;
+
+  public ScopedProviderComponent(Provider<ScopedComponent> scopedProvider) {
+    this.scopedProvider = scopedProvider;
+  }
+
+  public Provider<ScopedComponent> getScopedProvider() {
+    return scopedProvider;
+  }
+}
@@ -0,0 +1,19 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+import dev.aronba.toni.context.core.Provider;
+
+// a provider injected into a scoped component resolves in the scope that created it
+@Component(Lifetime.SCOPED)
+public class ScopedProviderConsumer {
+  private final Provider<ScopedComponent> scopedProvider;
+
+  public ScopedProviderConsumer(Provider<ScopedComponent> scopedProvider) {
+    this.scopedProvider = scopedProvider;
+  }
+
+  public Provider<ScopedComponent> getScopedProvider() {
+    return scopedProvider;
+  }
+}
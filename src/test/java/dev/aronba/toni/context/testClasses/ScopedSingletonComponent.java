@@ -0,0 +1,9 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+
+// a singleton must not hold on to the instance of a single scope
+@Component
+public class ScopedSingletonComponent {
+  public ScopedSingletonComponent(ScopedComponent scopedComponent) {}
+}
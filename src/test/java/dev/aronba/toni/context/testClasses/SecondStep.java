@@ -0,0 +1,8 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Order;
+
+@Component
+@Order(2)
+public class SecondStep implements PipelineStep {}
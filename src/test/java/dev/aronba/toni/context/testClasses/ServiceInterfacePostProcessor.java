@@ -0,0 +1,29 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostProcessor;
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.processor.ComponentPostProcessor;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Only supports the implementations of {@link ServiceInterface}. */
+@Component
+@PostProcessor
+public class ServiceInterfacePostProcessor implements ComponentPostProcessor {
+  private final List<Class<?>> processedTypes = new CopyOnWriteArrayList<>();
+
+  @Override
+  public boolean supports(Class<?> type) {
+    return ServiceInterface.class.isAssignableFrom(type);
+  }
+
+  @Override
+  public void postProcess(Class<?> type, Object instance, ApplicationContext applicationContext) {
+    processedTypes.add(type);
+  }
+
+  public List<Class<?>> getProcessedTypes() {
+    return processedTypes;
+  }
+}
@@ -0,0 +1,19 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+
+@Component
+public class SlowInitComponent {
+  private volatile boolean initialized = false;
+
+  @PostConstruct
+  void init() throws InterruptedException {
+    Thread.sleep(100);
+    initialized = true;
+  }
+
+  public boolean isInitialized() {
+    return initialized;
+  }
+}
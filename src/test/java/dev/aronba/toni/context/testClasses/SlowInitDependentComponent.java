@@ -0,0 +1,23 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+
+@Component
+public class SlowInitDependentComponent {
+  private final SlowInitComponent slowInitComponent;
+  private volatile boolean initializedAfterDependency = false;
+
+  public SlowInitDependentComponent(SlowInitComponent slowInitComponent) {
+    this.slowInitComponent = slowInitComponent;
+  }
+
+  @PostConstruct
+  void init() {
+    initializedAfterDependency = slowInitComponent.isInitialized();
+  }
+
+  public boolean isInitializedAfterDependency() {
+    return initializedAfterDependency;
+  }
+}
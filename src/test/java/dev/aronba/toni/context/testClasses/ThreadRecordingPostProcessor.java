@@ -0,0 +1,24 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostProcessor;
+import dev.aronba.toni.context.core.ApplicationContext;
+import dev.aronba.toni.context.processor.ComponentPostProcessor;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Records the threads it is called on. */
+@Component
+@PostProcessor
+public class ThreadRecordingPostProcessor implements ComponentPostProcessor {
+  private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+  @Override
+  public void postProcess(Class<?> type, Object instance, ApplicationContext applicationContext) {
+    threads.add(Thread.currentThread());
+  }
+
+  public Set<Thread> getThreads() {
+    return threads;
+  }
+}
@@ -0,0 +1,6 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+
+@Component
+public class UnorderedStep implements PipelineStep {}
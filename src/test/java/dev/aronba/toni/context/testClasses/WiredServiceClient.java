@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.testClasses.wiring.WiredService;
+
+@Component
+public class WiredServiceClient {
+  private final WiredService service;
+
+  public WiredServiceClient(WiredService service) {
+    this.service = service;
+  }
+
+  public WiredService getService() {
+    return service;
+  }
+}
@@ -0,0 +1,20 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class AsyncListener {
+  private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+  @Listen
+  public void on(OrderPlaced event) {
+    threads.add(Thread.currentThread());
+  }
+
+  public List<Thread> getThreads() {
+    return threads;
+  }
+}
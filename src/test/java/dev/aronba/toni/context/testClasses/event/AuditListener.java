@@ -0,0 +1,21 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import dev.aronba.toni.context.annotation.Order;
+
+/** Receives every order event, before {@link ShippingListener}. */
+@Order(1)
+@Component
+public class AuditListener {
+  private final EventRecorder recorder;
+
+  public AuditListener(EventRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Listen
+  private void on(OrderEvent event) {
+    recorder.record("audit " + event.orderId());
+  }
+}
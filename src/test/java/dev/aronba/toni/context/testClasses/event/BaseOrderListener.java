@@ -0,0 +1,22 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Listen;
+
+/** Declares listeners for {@link InheritingListener}. */
+public abstract class BaseOrderListener {
+  protected final EventRecorder recorder;
+
+  protected BaseOrderListener(EventRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Listen
+  public void placed(OrderPlaced event) {
+    recorder.record("placed " + event.orderId());
+  }
+
+  @Listen
+  public void cancelled(OrderCancelled event) {
+    recorder.record("base cancelled " + event.orderId());
+  }
+}
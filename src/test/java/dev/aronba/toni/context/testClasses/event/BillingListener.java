@@ -0,0 +1,21 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import dev.aronba.toni.context.annotation.Order;
+
+/** Has the same order as {@link InvoiceListener}, and the name that sorts first. */
+@Order(3)
+@Component
+public class BillingListener {
+  private final EventRecorder recorder;
+
+  public BillingListener(EventRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Listen
+  public void bill(OrderPlaced event) {
+    recorder.record("bill " + event.orderId());
+  }
+}
@@ -0,0 +1,14 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import java.io.IOException;
+
+@Component
+public class CheckedFailingListener {
+
+  @Listen
+  public void on(OrderPlaced event) throws IOException {
+    throw new IOException("Could not write " + event.orderId());
+  }
+}
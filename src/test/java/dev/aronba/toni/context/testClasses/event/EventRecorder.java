@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class EventRecorder {
+  private final List<String> events = new CopyOnWriteArrayList<>();
+
+  public void record(String event) {
+    events.add(event);
+  }
+
+  public List<String> getEvents() {
+    return events;
+  }
+}
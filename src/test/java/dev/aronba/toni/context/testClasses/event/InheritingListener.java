@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+
+@Component
+public class InheritingListener extends BaseOrderListener {
+
+  public InheritingListener(EventRecorder recorder) {
+    super(recorder);
+  }
+
+  @Listen
+  @Override
+  public void cancelled(OrderCancelled event) {
+    recorder.record("cancelled " + event.orderId());
+  }
+}
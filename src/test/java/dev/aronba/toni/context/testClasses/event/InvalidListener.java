@@ -0,0 +1,10 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+
+@Component
+public class InvalidListener {
+  @Listen
+  public void on(OrderPlaced event, OrderCancelled other) {}
+}
@@ -0,0 +1,20 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import dev.aronba.toni.context.annotation.Order;
+
+@Order(3)
+@Component
+public class InvoiceListener {
+  private final EventRecorder recorder;
+
+  public InvoiceListener(EventRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Listen
+  public void invoice(OrderPlaced event) {
+    recorder.record("invoice " + event.orderId());
+  }
+}
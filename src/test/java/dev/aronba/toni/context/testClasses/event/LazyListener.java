@@ -0,0 +1,19 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.LAZY)
+public class LazyListener {
+  private final EventRecorder recorder;
+
+  public LazyListener(EventRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Listen
+  public void on(OrderPlaced event) {
+    recorder.record("lazy " + event.orderId());
+  }
+}
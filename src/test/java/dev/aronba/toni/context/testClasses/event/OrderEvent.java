@@ -0,0 +1,5 @@
+package dev.aronba.toni.context.testClasses.event;
+
+public interface OrderEvent {
+  String orderId();
+}
@@ -0,0 +1,3 @@
+package dev.aronba.toni.context.testClasses.event;
+
+public record OrderPlaced(String orderId) implements OrderEvent {}
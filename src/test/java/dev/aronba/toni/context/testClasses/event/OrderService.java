@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.event.EventBus;
+
+@Component
+public class OrderService {
+  private final EventBus eventBus;
+
+  public OrderService(EventBus eventBus) {
+    this.eventBus = eventBus;
+  }
+
+  public void place(String orderId) {
+    eventBus.publish(new OrderPlaced(orderId));
+  }
+}
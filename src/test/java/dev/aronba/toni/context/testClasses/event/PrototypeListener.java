@@ -0,0 +1,19 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.PROTOTYPE)
+public class PrototypeListener {
+  private final EventRecorder recorder;
+
+  public PrototypeListener(EventRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Listen
+  public void on(OrderEvent event) {
+    recorder.record("prototype " + event.orderId());
+  }
+}
@@ -0,0 +1,12 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+
+@Component
+public class RejectingListener {
+  @Listen
+  public void on(OrderCancelled event) {
+    throw new IllegalStateException("Order " + event.orderId() + " was already shipped");
+  }
+}
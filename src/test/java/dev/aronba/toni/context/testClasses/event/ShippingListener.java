@@ -0,0 +1,25 @@
+package dev.aronba.toni.context.testClasses.event;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Listen;
+import dev.aronba.toni.context.annotation.Order;
+
+@Order(2)
+@Component
+public class ShippingListener {
+  private final EventRecorder recorder;
+
+  public ShippingListener(EventRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Listen
+  public void ship(OrderPlaced event) {
+    recorder.record("ship " + event.orderId());
+  }
+
+  @Listen
+  public void stop(OrderCancelled event) {
+    recorder.record("stop " + event.orderId());
+  }
+}
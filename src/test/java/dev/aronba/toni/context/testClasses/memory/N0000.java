@@ -0,0 +1,7 @@
+package dev.aronba.toni.context.testClasses.memory;
+
+import dev.aronba.toni.context.annotation.Component;
+
+/** Template of the components without dependencies, see {@link SyntheticGraph}. */
+@Component
+public class N0000 {}
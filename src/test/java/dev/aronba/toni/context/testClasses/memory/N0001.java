@@ -0,0 +1,7 @@
+package dev.aronba.toni.context.testClasses.memory;
+
+import dev.aronba.toni.context.annotation.Component;
+
+/** Placeholder of the second dependency of {@link N0002}, see {@link SyntheticGraph}. */
+@Component
+public class N0001 {}
@@ -0,0 +1,10 @@
+package dev.aronba.toni.context.testClasses.memory;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Provider;
+
+/** Template of the components with dependencies, see {@link SyntheticGraph}. */
+@Component
+public class N0002 {
+  public N0002(N0000 first, Provider<N0001> second) {}
+}
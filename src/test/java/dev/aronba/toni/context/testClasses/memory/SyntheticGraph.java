@@ -0,0 +1,78 @@
+package dev.aronba.toni.context.testClasses.memory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Defines a graph of up to 10k components at runtime. The first hundred are copies of {@link
+ * N0000}, every further one is a copy of {@link N0002} that depends on two random earlier ones.
+ * A copy only renames the template classes within the bytecode to names of the same length, so no
+ * compiler is needed.
+ */
+public final class SyntheticGraph {
+  private static final int ROOTS = 100;
+  private static final Pattern TEMPLATE_NAME = Pattern.compile("memory/N000([012])");
+
+  private SyntheticGraph() {}
+
+  public static Class<?>[] define(int size) throws IOException {
+    String root = read(N0000.class);
+    String node = read(N0002.class);
+    Loader loader = new Loader(SyntheticGraph.class.getClassLoader());
+    Random random = new Random(42);
+
+    Class<?>[] classes = new Class<?>[size];
+    for (int i = 0; i < size; i++) {
+      String[] names = new String[3];
+      names[2] = name(i);
+      if (i < ROOTS) {
+        names[0] = names[2];
+        classes[i] = loader.define(rename(root, names));
+      } else {
+        int first = random.nextInt(i);
+        int second = (first + 1 + random.nextInt(i - 1)) % i;
+        names[0] = name(first);
+        names[1] = name(second);
+        classes[i] = loader.define(rename(node, names));
+      }
+    }
+    return classes;
+  }
+
+  /** The bytecode of a copy of {@link N0000} named {@code S<index>}. */
+  public static byte[] root(int index) throws IOException {
+    String[] names = {name(index), null, name(index)};
+    return rename(read(N0000.class), names);
+  }
+
+  private static String name(int index) {
+    return "memory/S%04d".formatted(index);
+  }
+
+  /** Replaces {@code N0000}, {@code N0001} and {@code N0002} by the given names. */
+  private static byte[] rename(String template, String[] names) {
+    return TEMPLATE_NAME
+        .matcher(template)
+        .replaceAll(match -> names[Integer.parseInt(match.group(1))])
+        .getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  private static String read(Class<?> template) throws IOException {
+    try (InputStream in = template.getResourceAsStream(template.getSimpleName() + ".class")) {
+      return new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+    }
+  }
+
+  private static final class Loader extends ClassLoader {
+    Loader(ClassLoader parent) {
+      super(parent);
+    }
+
+    Class<?> define(byte[] bytes) {
+      return defineClass(null, bytes, 0, bytes.length);
+    }
+  }
+}
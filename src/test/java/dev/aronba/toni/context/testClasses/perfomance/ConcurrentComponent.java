@@ -0,0 +1,15 @@
+package dev.aronba.toni.context.testClasses.perfomance;
+
+import dev.aronba.toni.context.annotation.Component;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+/** Can only be constructed while {@link OtherConcurrentComponent} is being constructed as well. */
+@Component
+public class ConcurrentComponent {
+  public static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+
+  public ConcurrentComponent() throws Exception {
+    BARRIER.await(5, TimeUnit.SECONDS);
+  }
+}
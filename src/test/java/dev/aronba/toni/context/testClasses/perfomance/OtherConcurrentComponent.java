@@ -0,0 +1,11 @@
+package dev.aronba.toni.context.testClasses.perfomance;
+
+import dev.aronba.toni.context.annotation.Component;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class OtherConcurrentComponent {
+  public OtherConcurrentComponent() throws Exception {
+    ConcurrentComponent.BARRIER.await(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,45 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Provides;
+import dev.aronba.toni.context.testClasses.EmptyComponent;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ClientConfiguration {
+  // both connections only open while the other one is opening as well
+  private final CountDownLatch connecting = new CountDownLatch(2);
+
+  @Provides
+  public ExternalClient externalClient(EmptyComponent emptyComponent) {
+    return new ExternalClient("http://localhost");
+  }
+
+  @Provides
+  public CompletableFuture<ExternalConnection> primaryConnection() {
+    return connect("primary");
+  }
+
+  @Provides
+  CompletableFuture<ExternalCache> cache(ExternalClient externalClient) {
+    return connect("cache").thenApply(ExternalCache::new);
+  }
+
+  private CompletableFuture<ExternalConnection> connect(String name) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          connecting.countDown();
+          try {
+            if (!connecting.await(5, TimeUnit.SECONDS)) {
+              throw new IllegalStateException("The connections were opened one after another");
+            }
+          } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+          }
+          return new ExternalConnection(name);
+        },
+        Thread.ofVirtual()::start);
+  }
+}
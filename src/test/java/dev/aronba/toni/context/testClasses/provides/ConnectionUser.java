@@ -0,0 +1,28 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+import dev.aronba.toni.context.annotation.Component;
+
+@Component
+public class ConnectionUser {
+  private final ExternalApi api;
+  private final ExternalConnection connection;
+  private final ExternalCache cache;
+
+  public ConnectionUser(ExternalApi api, ExternalConnection connection, ExternalCache cache) {
+    this.api = api;
+    this.connection = connection;
+    this.cache = cache;
+  }
+
+  public ExternalApi getApi() {
+    return api;
+  }
+
+  public ExternalConnection getConnection() {
+    return connection;
+  }
+
+  public ExternalCache getCache() {
+    return cache;
+  }
+}
@@ -0,0 +1,6 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+/** An interface of a library, which can not be annotated. */
+public interface ExternalApi {
+  String endpoint();
+}
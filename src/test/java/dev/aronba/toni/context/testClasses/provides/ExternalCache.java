@@ -0,0 +1,13 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+public class ExternalCache {
+  private final ExternalConnection connection;
+
+  public ExternalCache(ExternalConnection connection) {
+    this.connection = connection;
+  }
+
+  public ExternalConnection getConnection() {
+    return connection;
+  }
+}
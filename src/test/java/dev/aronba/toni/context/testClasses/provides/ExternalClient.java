@@ -0,0 +1,15 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+/** A class of a library, which can not be annotated. */
+public class ExternalClient implements ExternalApi {
+  private final String endpoint;
+
+  public ExternalClient(String endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  @Override
+  public String endpoint() {
+    return endpoint;
+  }
+}
@@ -0,0 +1,13 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+public class ExternalConnection {
+  private final String name;
+
+  public ExternalConnection(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,14 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Provides;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class FailingConfiguration {
+
+  @Provides
+  public static CompletableFuture<ExternalConnection> connection() {
+    return CompletableFuture.failedFuture(new IllegalStateException("Connection refused"));
+  }
+}
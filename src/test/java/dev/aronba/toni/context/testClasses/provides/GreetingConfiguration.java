@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Provides;
+import dev.aronba.toni.context.testClasses.EmptyComponent;
+
+/** Depends on a component, so its static factory method's product is created before it. */
+@Component
+public class GreetingConfiguration {
+
+  public GreetingConfiguration(EmptyComponent emptyComponent) {}
+
+  @Provides
+  public static ProvidedGreeting greeting() {
+    return new ProvidedGreeting("configured");
+  }
+}
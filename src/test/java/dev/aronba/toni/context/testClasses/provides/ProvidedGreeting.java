@@ -0,0 +1,18 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+/** A library class that can be created with its constructor, but is configured by a factory. */
+public class ProvidedGreeting {
+  private final String text;
+
+  public ProvidedGreeting() {
+    this("default");
+  }
+
+  public ProvidedGreeting(String text) {
+    this.text = text;
+  }
+
+  public String getText() {
+    return text;
+  }
+}
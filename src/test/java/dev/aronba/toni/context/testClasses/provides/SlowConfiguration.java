@@ -0,0 +1,25 @@
+package dev.aronba.toni.context.testClasses.provides;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Provides;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SlowConfiguration {
+  private static volatile CompletableFuture<ExternalCache> cache;
+
+  @Provides
+  public static CompletableFuture<ExternalCache> cache() {
+    cache =
+        CompletableFuture.supplyAsync(
+            () -> new ExternalCache(new ExternalConnection("slow")),
+            CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+    return cache;
+  }
+
+  /** The future of the last call to {@link #cache()}. */
+  public static CompletableFuture<ExternalCache> lastCache() {
+    return cache;
+  }
+}
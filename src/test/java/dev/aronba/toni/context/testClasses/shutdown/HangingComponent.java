@@ -0,0 +1,13 @@
+package dev.aronba.toni.context.testClasses.shutdown;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PreDestroy;
+
+@Component
+public class HangingComponent {
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    Thread.sleep(10_000);
+  }
+}
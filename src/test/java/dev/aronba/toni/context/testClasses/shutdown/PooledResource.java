@@ -0,0 +1,23 @@
+package dev.aronba.toni.context.testClasses.shutdown;
+
+import dev.aronba.toni.context.annotation.Component;
+
+@Component
+public class PooledResource implements AutoCloseable {
+  private final ShutdownRecorder recorder;
+  private volatile boolean open = true;
+
+  public PooledResource(ShutdownRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  public boolean isOpen() {
+    return open;
+  }
+
+  @Override
+  public void close() {
+    open = false;
+    recorder.record("pool closed");
+  }
+}
@@ -0,0 +1,20 @@
+package dev.aronba.toni.context.testClasses.shutdown;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PreDestroy;
+
+@Component
+public class ResourceUser {
+  private final PooledResource resource;
+  private final ShutdownRecorder recorder;
+
+  public ResourceUser(PooledResource resource, ShutdownRecorder recorder) {
+    this.resource = resource;
+    this.recorder = recorder;
+  }
+
+  @PreDestroy
+  void flush() {
+    recorder.record(resource.isOpen() ? "user flushed" : "user flushed into a closed pool");
+  }
+}
@@ -0,0 +1,20 @@
+package dev.aronba.toni.context.testClasses.shutdown;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PreDestroy;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SecondDrainingComponent {
+  private final ShutdownRecorder recorder;
+
+  public SecondDrainingComponent(ShutdownRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @PreDestroy
+  void drain() throws Exception {
+    recorder.getBarrier().await(2, TimeUnit.SECONDS);
+    recorder.record("second drained");
+  }
+}
@@ -0,0 +1,25 @@
+package dev.aronba.toni.context.testClasses.shutdown;
+
+import dev.aronba.toni.context.annotation.Component;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+
+@Component
+public class ShutdownRecorder {
+  private final List<String> events = new CopyOnWriteArrayList<>();
+  // only passed while two components are destroyed at the same time
+  private final CyclicBarrier barrier = new CyclicBarrier(2);
+
+  public void record(String event) {
+    events.add(event);
+  }
+
+  public List<String> getEvents() {
+    return events;
+  }
+
+  CyclicBarrier getBarrier() {
+    return barrier;
+  }
+}
@@ -0,0 +1,6 @@
+package dev.aronba.toni.context.testClasses.wiring;
+
+import dev.aronba.toni.context.annotation.Component;
+
+@Component
+public class InMemoryWiredRepository implements WiredRepository {}
@@ -0,0 +1,8 @@
+package dev.aronba.toni.context.testClasses.wiring;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.Order;
+
+@Component
+@Order(2)
+public class SecondWiredPlugin implements WiredPlugin {}
@@ -0,0 +1,14 @@
+package dev.aronba.toni.context.testClasses.wiring;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Lifetime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component(Lifetime.LAZY)
+public class WiredAudit {
+  public static final AtomicInteger CREATIONS = new AtomicInteger();
+
+  public WiredAudit() {
+    CREATIONS.incrementAndGet();
+  }
+}
@@ -0,0 +1,6 @@
+package dev.aronba.toni.context.testClasses.wiring;
+
+import dev.aronba.toni.context.annotation.GenerateWiring;
+
+@GenerateWiring
+public final class WiredComponents {}
@@ -0,0 +1,17 @@
+package dev.aronba.toni.context.testClasses.wiring;
+
+import dev.aronba.toni.context.annotation.Component;
+import java.util.Set;
+
+@Component
+public class WiredPluginSet {
+  private final Set<WiredPlugin> plugins;
+
+  public WiredPluginSet(Set<WiredPlugin> plugins) {
+    this.plugins = plugins;
+  }
+
+  public Set<WiredPlugin> getPlugins() {
+    return plugins;
+  }
+}
@@ -0,0 +1,28 @@
+package dev.aronba.toni.context.testClasses.wiring;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.annotation.PostConstruct;
+import dev.aronba.toni.context.core.Lifetime;
+
+@Component(Lifetime.PROTOTYPE)
+public class WiredRequest {
+  private final WiredRepository repository;
+  private boolean initialized = false;
+
+  public WiredRequest(WiredRepository repository) {
+    this.repository = repository;
+  }
+
+  @PostConstruct
+  void init() {
+    initialized = true;
+  }
+
+  public WiredRepository getRepository() {
+    return repository;
+  }
+
+  public boolean isInitialized() {
+    return initialized;
+  }
+}
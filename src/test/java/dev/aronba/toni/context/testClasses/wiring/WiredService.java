@@ -0,0 +1,40 @@
+package dev.aronba.toni.context.testClasses.wiring;
+
+import dev.aronba.toni.context.annotation.Component;
+import dev.aronba.toni.context.core.Provider;
+import java.util.List;
+
+@Component
+public class WiredService {
+  private final WiredRepository repository;
+  private final Provider<WiredRequest> requests;
+  private final Provider<WiredAudit> audit;
+  private final List<WiredPlugin> plugins;
+
+  public WiredService(
+      WiredRepository repository,
+      Provider<WiredRequest> requests,
+      Provider<WiredAudit> audit,
+      List<WiredPlugin> plugins) {
+    this.repository = repository;
+    this.requests = requests;
+    this.audit = audit;
+    this.plugins = plugins;
+  }
+
+  public WiredRepository getRepository() {
+    return repository;
+  }
+
+  public Provider<WiredRequest> getRequests() {
+    return requests;
+  }
+
+  public Provider<WiredAudit> getAudit() {
+    return audit;
+  }
+
+  public List<WiredPlugin> getPlugins() {
+    return plugins;
+  }
+}